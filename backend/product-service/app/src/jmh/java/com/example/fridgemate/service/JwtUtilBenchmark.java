@@ -0,0 +1,51 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private static final String KEY_FILE = "src/main/resources/keys/secret-key.dat";
+
+    private String validToken;
+    private String invalidToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        SecretKeySpec key = new SecretKeySpec(Files.readAllBytes(Paths.get(KEY_FILE)), "HmacSHA256");
+        validToken = Jwts.builder()
+                .setSubject("benchmark")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(key)
+                .compact();
+        invalidToken = validToken.substring(0, validToken.length() - 2) + "xx";
+    }
+
+    @Benchmark
+    public boolean validateValidToken() {
+        return JwtUtil.validateToken(validToken);
+    }
+
+    @Benchmark
+    public boolean validateInvalidToken() {
+        return JwtUtil.validateToken(invalidToken);
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return JwtUtil.hashToken(validToken);
+    }
+}
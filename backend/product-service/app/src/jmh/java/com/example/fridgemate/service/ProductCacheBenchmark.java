@@ -0,0 +1,110 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip cost of product cache writes and evictions by fridge size.
+ * Writes: SETEX per product against one pipeline, evictions: DEL per product against one UNLINK.
+ * Evictions write their keys with one pipeline first, so both variants delete existing keys.
+ * Keys are written to local Redis with benchmark prefix and removed after run.
+ * Redis is taken from -Dbenchmark.redis.host and -Dbenchmark.redis.port.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductCacheBenchmark {
+    private static final long TTL_SECONDS = TimeUnit.HOURS.toSeconds(24);
+
+    @Param({"10", "100"})
+    private int size;
+
+    private Jedis jedis;
+    private byte[][] keys;
+    private String[] stringKeys;
+    private byte[][] values;
+
+    @Setup
+    public void setUp() {
+        jedis = new Jedis(System.getProperty("benchmark.redis.host", "localhost"),
+                Integer.parseInt(System.getProperty("benchmark.redis.port", "6379")));
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        ProductTypeEntity type = new ProductTypeEntity();
+        type.setId(1L);
+        type.setName("Молоко");
+        type.setShelfDays(7);
+        type.setQuantityType("л");
+        keys = new byte[size][];
+        stringKeys = new String[size];
+        values = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setId((long) i);
+            product.setToken("token");
+            product.setOwnerId(1L);
+            product.setName("Молоко 3.2%");
+            product.setType(type);
+            product.setQuantity(2);
+            product.setAmount(new BigDecimal("89.90"));
+            product.setAddedDate(LocalDate.now());
+            product.setExpiryDate(LocalDate.now().plusDays(i % 30));
+            stringKeys[i] = "benchmark-product: " + i;
+            keys[i] = stringKeys[i].getBytes(StandardCharsets.UTF_8);
+            values[i] = serializer.serialize(product);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jedis.unlink(stringKeys);
+        jedis.close();
+    }
+
+    private void writePipelined() {
+        Pipeline pipeline = jedis.pipelined();
+        for (int i = 0; i < size; i++) {
+            pipeline.setex(keys[i], TTL_SECONDS, values[i]);
+        }
+        pipeline.sync();
+    }
+
+    @Benchmark
+    public void writePerKey() {
+        for (int i = 0; i < size; i++) {
+            jedis.setex(keys[i], TTL_SECONDS, values[i]);
+        }
+    }
+
+    @Benchmark
+    public void writeInPipeline() {
+        writePipelined();
+    }
+
+    @Benchmark
+    public long evictPerKey() {
+        writePipelined();
+        long deleted = 0;
+        for (String key : stringKeys) {
+            deleted += jedis.del(key);
+        }
+        return deleted;
+    }
+
+    @Benchmark
+    public long evictWithUnlink() {
+        writePipelined();
+        return jedis.unlink(stringKeys);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.fridgemate.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of expired and missing product queries by fridge size.
+ * Before: whole fridge is loaded by owner and filtered by expiry date in Java.
+ * After: expiry date is bounded in query and served by (owner_id, expiry_date) index.
+ * Products are created in temporary table of local Postgres, so real products are not touched.
+ * Connection is taken from -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and -Dbenchmark.jdbc.password.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductExpiryBenchmark {
+    private static final int OTHER_PRODUCTS_COUNT = 200_000;
+    private static final long OWNER_ID = 0;
+    private static final String COLUMNS = "SELECT id, name, expiry_date, quantity, amount FROM products_benchmark ";
+    private static final String FRIDGE_QUERY = COLUMNS + "WHERE owner_id = ?";
+    private static final String EXPIRED_QUERY = COLUMNS + "WHERE owner_id = ? AND expiry_date < ?";
+    private static final String MISSING_QUERY = COLUMNS + "WHERE owner_id = ? AND expiry_date > ? AND expiry_date <= ?";
+
+    @Param({"100", "1000", "10000"})
+    private int fridgeSize;
+
+    private Connection connection;
+    private PreparedStatement fridgeStatement;
+    private PreparedStatement expiredStatement;
+    private PreparedStatement missingStatement;
+    private LocalDate today;
+
+    record Row(long id, String name, LocalDate expiryDate, int quantity, BigDecimal amount) {
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/fridgemate"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "123"));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TEMP TABLE products_benchmark (id BIGINT PRIMARY KEY, owner_id BIGINT, name TEXT, "
+                    + "expiry_date DATE, quantity INT, amount NUMERIC(10, 2))");
+            ddl.execute("INSERT INTO products_benchmark "
+                    + "SELECT i, 1 + i % 1000, 'Продукт ' || i, current_date + (i % 100) - 3, 1, 10 "
+                    + "FROM generate_series(1, " + OTHER_PRODUCTS_COUNT + ") AS i");
+            ddl.execute("INSERT INTO products_benchmark "
+                    + "SELECT " + OTHER_PRODUCTS_COUNT + " + i, " + OWNER_ID + ", 'Продукт ' || i, current_date + (i % 100) - 3, 1, 10 "
+                    + "FROM generate_series(1, " + fridgeSize + ") AS i");
+            ddl.execute("CREATE INDEX ON products_benchmark (owner_id, expiry_date)");
+            ddl.execute("ANALYZE products_benchmark");
+        }
+        fridgeStatement = connection.prepareStatement(FRIDGE_QUERY);
+        expiredStatement = connection.prepareStatement(EXPIRED_QUERY);
+        missingStatement = connection.prepareStatement(MISSING_QUERY);
+        today = LocalDate.now();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private static List<Row> rows(PreparedStatement statement) throws SQLException {
+        List<Row> rows = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(new Row(resultSet.getLong(1), resultSet.getString(2), resultSet.getDate(3).toLocalDate(),
+                        resultSet.getInt(4), resultSet.getBigDecimal(5)));
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<Row> expiredFilteredInJava() throws SQLException {
+        fridgeStatement.setLong(1, OWNER_ID);
+        return rows(fridgeStatement).stream().filter(row -> row.expiryDate().isBefore(today)).toList();
+    }
+
+    @Benchmark
+    public List<Row> expiredBoundedInDb() throws SQLException {
+        expiredStatement.setLong(1, OWNER_ID);
+        expiredStatement.setDate(2, Date.valueOf(today));
+        return rows(expiredStatement);
+    }
+
+    @Benchmark
+    public List<Row> missingFilteredInJava() throws SQLException {
+        fridgeStatement.setLong(1, OWNER_ID);
+        return rows(fridgeStatement).stream()
+                .filter(row -> row.expiryDate().isAfter(today) && !row.expiryDate().isAfter(today.plusDays(1)))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Row> missingBoundedInDb() throws SQLException {
+        missingStatement.setLong(1, OWNER_ID);
+        missingStatement.setDate(2, Date.valueOf(today));
+        missingStatement.setDate(3, Date.valueOf(today.plusDays(1)));
+        return rows(missingStatement);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductFilterBenchmark {
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<ProductEntity> products;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setId((long) i);
+            product.setExpiryDate(today.plusDays(random.nextInt(60) - 20));
+            products.add(product);
+        }
+    }
+
+    @Benchmark
+    public List<ProductEntity> expiredProducts() {
+        return products.stream().filter(ProductService::isProductExpired).toList();
+    }
+
+    @Benchmark
+    public List<ProductEntity> missingProducts() {
+        return products.stream().filter(ProductService::isProductMissing).toList();
+    }
+}
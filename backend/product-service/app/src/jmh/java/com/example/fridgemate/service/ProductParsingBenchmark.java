@@ -0,0 +1,53 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.ProductDto;
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductParsingBenchmark {
+    private ProductTypeEntity type;
+    private ProductDto datedProduct;
+    private ProductDto undatedProduct;
+
+    @Setup
+    public void setUp() {
+        type = new ProductTypeEntity();
+        type.setId(1L);
+        type.setName("Молоко");
+        type.setShelfDays(7);
+        type.setQuantityType("л");
+        datedProduct = product(LocalDate.now().toString(), LocalDate.now().plusDays(5).toString());
+        undatedProduct = product("", "");
+    }
+
+    private static ProductDto product(String addedDate, String expiryDate) {
+        ProductDto dto = new ProductDto();
+        dto.setName("Молоко 3.2%");
+        dto.setTypeId("1");
+        dto.setQuantity("2");
+        dto.setAmount("89.90");
+        dto.setAddedDate(addedDate);
+        dto.setExpiryDate(expiryDate);
+        return dto;
+    }
+
+    @Benchmark
+    public ProductEntity parseDatedProduct() {
+        return ProductService.toProductEntity("token", 1L, datedProduct, type);
+    }
+
+    @Benchmark
+    public ProductEntity parseUndatedProduct() {
+        return ProductService.toProductEntity("token", 1L, undatedProduct, type);
+    }
+}
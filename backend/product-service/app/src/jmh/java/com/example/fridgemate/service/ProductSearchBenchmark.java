@@ -0,0 +1,82 @@
+package com.example.fridgemate.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of trigram product name search with 1k products per user.
+ * Query is the one of ProductRepository.searchIdsByOwnerIdAndName over gin_trgm_ops index.
+ * Products are created in temporary table of local Postgres, so real products are not touched.
+ * Connection is taken from -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and -Dbenchmark.jdbc.password.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+    private static final int USERS_COUNT = 200;
+    private static final int PRODUCTS_PER_USER = 1_000;
+    private static final int LIMIT = 20;
+    private static final long OWNER_ID = 42;
+    private static final String[] NAMES = {"Молоко", "Кефир", "Сыр", "Масло сливочное", "Творог", "Йогурт",
+            "Хлеб", "Яйца", "Курица", "Говядина", "Яблоки", "Бананы", "Томаты", "Огурцы", "Картофель", "Морковь"};
+    private static final String SEARCH_QUERY = "SELECT id FROM products_benchmark "
+            + "WHERE owner_id = ? AND (name ILIKE ? OR name % ?) ORDER BY similarity(name, ?) DESC, id LIMIT ?";
+
+    @Param({"мол", "масло слив", "кифир"})
+    private String query;
+
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/fridgemate"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "123"));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            ddl.execute("CREATE TEMP TABLE products_benchmark (id BIGINT PRIMARY KEY, owner_id BIGINT, name TEXT)");
+            ddl.execute("INSERT INTO products_benchmark "
+                    + "SELECT i, i % " + USERS_COUNT + ", (ARRAY['" + String.join("','", NAMES) + "'])[1 + i % " + NAMES.length + "] "
+                    + "|| ' ' || (i % 37) FROM generate_series(1, " + USERS_COUNT * PRODUCTS_PER_USER + ") AS i");
+            ddl.execute("CREATE INDEX ON products_benchmark USING gin (name gin_trgm_ops)");
+            ddl.execute("CREATE INDEX ON products_benchmark (owner_id)");
+            ddl.execute("ANALYZE products_benchmark");
+        }
+        statement = connection.prepareStatement(SEARCH_QUERY);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> search() throws SQLException {
+        statement.setLong(1, OWNER_ID);
+        statement.setString(2, "%" + query + "%");
+        statement.setString(3, query);
+        statement.setString(4, query);
+        statement.setInt(5, LIMIT);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.repository.ProductTypeRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductTypeCatalogBenchmark {
+    private static final int TYPES_COUNT = 10_000;
+
+    @Param({"мол", "продукт 12", "несуществующий"})
+    private String prefix;
+
+    private ProductTypeCatalog catalog;
+
+    @Setup
+    public void setUp() {
+        List<ProductTypeEntity> types = new ArrayList<>(TYPES_COUNT);
+        for (int i = 0; i < TYPES_COUNT; i++) {
+            ProductTypeEntity type = new ProductTypeEntity();
+            type.setId((long) i);
+            type.setName((i % 10 == 0 ? "Молоко " : "Продукт ") + i);
+            type.setShelfDays(7);
+            type.setQuantityType("шт");
+            types.add(type);
+        }
+        ProductTypeRepository repository = (ProductTypeRepository) Proxy.newProxyInstance(
+                ProductTypeRepository.class.getClassLoader(),
+                new Class<?>[]{ProductTypeRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && args == null) {
+                        return types;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        catalog = new ProductTypeCatalog(repository, null);
+        catalog.load(0);
+    }
+
+    @Benchmark
+    public List<ProductTypeEntity> findByPrefix() {
+        return catalog.findByPrefix(prefix, 10);
+    }
+
+    @Benchmark
+    public List<ProductTypeEntity> scanByPrefix() {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        return catalog.findAll().stream()
+                .filter(type -> type.getName().toLowerCase(Locale.ROOT).startsWith(normalized))
+                .limit(10)
+                .toList();
+    }
+}
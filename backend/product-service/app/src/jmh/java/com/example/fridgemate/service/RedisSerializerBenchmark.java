@@ -0,0 +1,67 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+    @Param({"1", "100"})
+    private int size;
+
+    private final GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+    private Object value;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        ProductTypeEntity type = new ProductTypeEntity();
+        type.setId(1L);
+        type.setName("Молоко");
+        type.setShelfDays(7);
+        type.setQuantityType("л");
+        List<ProductEntity> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setId((long) i);
+            product.setToken("token");
+            product.setOwnerId(1L);
+            product.setName("Молоко 3.2%");
+            product.setType(type);
+            product.setQuantity(2);
+            product.setAmount(new BigDecimal("89.90"));
+            product.setAddedDate(LocalDate.now());
+            product.setExpiryDate(LocalDate.now().plusDays(i % 30));
+            products.add(product);
+        }
+        value = size == 1 ? products.get(0) : products;
+        bytes = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.fridgemate.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+    public static final String PRODUCT_CHANGED_TOPIC = "product-changed-topic";
+
+    @Bean
+    public NewTopic ProductChangedTopic() {
+        return TopicBuilder.name(PRODUCT_CHANGED_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+}
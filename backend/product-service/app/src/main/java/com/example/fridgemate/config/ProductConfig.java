@@ -1,20 +1,50 @@
 package com.example.fridgemate.config;
 
+import com.example.fridgemate.service.ProductAdmissionService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
-
 @Configuration
 public class ProductConfig {
     @Bean(name = "productExecutor")
-    public Executor productExecutor() {
+    public ThreadPoolTaskExecutor productExecutor(ProductAdmissionService productAdmissionService) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);
+        executor.setCorePoolSize(50);
         executor.setMaxPoolSize(50);
+        executor.setAllowCoreThreadTimeOut(true);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("productTask-");
+        executor.setTaskDecorator(productAdmissionService.decorator(ProductAdmissionService.READ_EXECUTOR));
+        executor.setRejectedExecutionHandler(productAdmissionService.rejectionHandler(ProductAdmissionService.READ_EXECUTOR));
+        executor.initialize();
+        productAdmissionService.monitor(ProductAdmissionService.READ_EXECUTOR, executor);
+        return executor;
+    }
+
+    @Bean(name = "productWriteExecutor")
+    public ThreadPoolTaskExecutor productWriteExecutor(ProductAdmissionService productAdmissionService) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(20);
+        executor.setMaxPoolSize(20);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("productWriteTask-");
+        executor.setTaskDecorator(productAdmissionService.decorator(ProductAdmissionService.WRITE_EXECUTOR));
+        executor.setRejectedExecutionHandler(productAdmissionService.rejectionHandler(ProductAdmissionService.WRITE_EXECUTOR));
+        executor.initialize();
+        productAdmissionService.monitor(ProductAdmissionService.WRITE_EXECUTOR, executor);
+        return executor;
+    }
+
+    @Bean(name = "digestExecutor")
+    public ThreadPoolTaskExecutor digestExecutor(@Value("${product.digest.partitions:4}") int partitions) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitions);
+        executor.setMaxPoolSize(partitions);
+        executor.setQueueCapacity(partitions);
+        executor.setThreadNamePrefix("digestTask-");
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,33 @@
+package com.example.fridgemate.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * Brings products_id_seq to the allocation size of ProductEntity before Hibernate starts.
+ * Hibernate compares sequence increment with allocation size while building EntityManagerFactory,
+ * and schema.sql runs only after that.
+ */
+@Configuration
+public class ProductSequenceConfig {
+    public static final String SEQUENCE_INITIALIZER = "productSequenceInitializer";
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor productSequenceDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SEQUENCE_INITIALIZER);
+    }
+
+    @Bean(name = SEQUENCE_INITIALIZER)
+    public DataSourceInitializer productSequenceInitializer(DataSource dataSource) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("sequence.sql")));
+        return initializer;
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.fridgemate.config;
 
+import com.example.fridgemate.service.ProductTypeCatalog;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -25,4 +28,11 @@ public class RedisConfig {
         factory.afterPropertiesSet();
         return factory;
     }
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(ProductTypeCatalog productTypeCatalog) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(jedisConnectionFactory());
+        container.addMessageListener(productTypeCatalog, new ChannelTopic(ProductTypeCatalog.VERSION_CHANNEL));
+        return container;
+    }
 }
@@ -1,17 +1,22 @@
 package com.example.fridgemate.controller;
 
 import com.example.fridgemate.dto.ProductDto;
+import com.example.fridgemate.exception.ProductAccessException;
 import com.example.fridgemate.exception.ProductException;
+import com.example.fridgemate.exception.ProductOverloadedException;
 import com.example.fridgemate.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.*;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -29,14 +34,89 @@ public class ProductController {
      * METHOD GET: getAllProducts.
      * This method get all products.
      *
+     * Response has ETag with fridge version, unchanged fridge is not sent again.
+     *
      * @param token User's type.
-     * @return OK (200) or NO_CONTENT (204).
+     * @param ifNoneMatch ETag known by client.
+     * @return OK (200), NO_CONTENT (204) or NOT_MODIFIED (304).
      */
     @Operation(summary = "Получить все продукты конкретного пользователя")
     @GetMapping("/all")
-    public CompletableFuture<ResponseEntity<?>> getAllProducts(@Valid @RequestParam("token") String token) {
-        return productService.getAllProducts(token)
-                .thenApply(products -> !products.isEmpty() ? ResponseEntity.ok(products) : ResponseEntity.noContent().build());
+    public CompletableFuture<ResponseEntity<?>> getAllProducts(@Valid @RequestParam("token") String token,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return productService.getProductsVersion(token).thenCompose(version -> {
+            String eTag = "\"" + version + "\"";
+            if (eTag.equals(ifNoneMatch)) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+            }
+            return productService.getAllProducts(token)
+                    .thenApply(products -> !products.isEmpty()
+                            ? ResponseEntity.ok().eTag(eTag).body(products)
+                            : ResponseEntity.noContent().eTag(eTag).build());
+        });
+    }
+
+    /**
+     * METHOD GET: getProductsChanges.
+     * This method get changes of products after version known by client.
+     *
+     * @param token User's type.
+     * @param since Version known by client.
+     * @return OK (200).
+     */
+    @Operation(summary = "Получить изменения продуктов конкретного пользователя после версии")
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<?>> getProductsChanges(@Valid @RequestParam("token") String token,
+                                                                   @RequestParam("since") long since) {
+        return productService.getProductsChanges(token, since)
+                .thenApply(changes -> ResponseEntity.ok(changes));
+    }
+
+    /**
+     * METHOD GET: getProductsSummary.
+     * This method get counts and amount of products by type and by expiry.
+     *
+     * @param token User's type.
+     * @return OK (200).
+     */
+    @Operation(summary = "Получить сводку по холодильнику конкретного пользователя")
+    @GetMapping("/summary")
+    public CompletableFuture<ResponseEntity<?>> getProductsSummary(@Valid @RequestParam("token") String token) {
+        return productService.getProductsSummary(token)
+                .thenApply(summary -> ResponseEntity.ok(summary));
+    }
+
+    /**
+     * METHOD GET: getProductsPage.
+     * This method get one page of products after given product id.
+     *
+     * @param token User's type.
+     * @param afterId Identity of the last product of previous page.
+     * @param limit Maximum count of products in page.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Получить страницу продуктов конкретного пользователя")
+    @GetMapping("/all/page")
+    public CompletableFuture<ResponseEntity<?>> getProductsPage(@Valid @RequestParam("token") String token,
+                                                                @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+                                                                @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return productService.getProductsPage(token, afterId, limit)
+                .thenApply(page -> !page.getProducts().isEmpty() ? ResponseEntity.ok(page) : ResponseEntity.noContent().build());
+    }
+
+    /**
+     * METHOD GET: streamAllProducts.
+     * This method stream all products as NDJSON.
+     *
+     * @param token User's type.
+     * @return OK (200).
+     */
+    @Operation(summary = "Выгрузить все продукты конкретного пользователя потоком NDJSON")
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts(@Valid @RequestParam("token") String token) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productService.streamAllProducts(token));
     }
 
     /**
@@ -68,6 +148,20 @@ public class ProductController {
                         .orElseGet(() -> ResponseEntity.noContent().build()));
     }
 
+    /**
+     * METHOD GET: getByIdsProducts.
+     * This method send response which get products by list of ids.
+     *
+     * @param ids Identities of products.
+     * @return OK (200).
+     */
+    @Operation(summary = "Получить продукты по списку идентификаторов")
+    @GetMapping("/ids")
+    public CompletableFuture<ResponseEntity<?>> getByIdsProducts(@RequestParam("ids") List<Long> ids) {
+        return productService.findProductsByIds(ids)
+                .thenApply(result -> ResponseEntity.ok(result));
+    }
+
     /**
      * METHOD GET: getByIdType.
      * This method send response which get product by type's id.
@@ -112,6 +206,22 @@ public class ProductController {
                 .thenApply(products -> !products.isEmpty() ? ResponseEntity.ok(products) : ResponseEntity.noContent().build());
     }
 
+    /**
+     * METHOD GET: getAllExpiringProducts.
+     * This method send response which get products expiring within given count of days.
+     *
+     * @param token User's type.
+     * @param days Count of days from today.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Получить все продукты, срок годности которых истекает в ближайшие дни")
+    @GetMapping("/expiring")
+    public CompletableFuture<ResponseEntity<?>> getAllExpiringProducts(@Valid @RequestParam("token") String token,
+                                                                       @RequestParam(value = "days", defaultValue = "3") int days) {
+        return productService.getExpiringProducts(token, days)
+                .thenApply(products -> !products.isEmpty() ? ResponseEntity.ok(products) : ResponseEntity.noContent().build());
+    }
+
     /**
      * METHOD GET: getAllProductTypes.
      * This method get all product's types.
@@ -140,6 +250,54 @@ public class ProductController {
                         .orElseGet(() -> ResponseEntity.noContent().build()));
     }
 
+    /**
+     * METHOD GET: searchProductTypes.
+     * This method get product types which names start with prefix.
+     *
+     * @param prefix Beginning of type name.
+     * @param limit Maximum count of types.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Найти типы продуктов по началу названия")
+    @GetMapping("/types/search")
+    public CompletableFuture<ResponseEntity<?>> searchProductTypes(@RequestParam("prefix") String prefix,
+                                                                   @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return productService.searchProductTypes(prefix, limit)
+                .thenApply(types -> !types.isEmpty() ? ResponseEntity.ok(types) : ResponseEntity.noContent().build());
+    }
+
+    /**
+     * METHOD GET: searchProducts.
+     * This method find user's products by similar name.
+     *
+     * @param token User's type.
+     * @param query Part of product name.
+     * @param limit Maximum count of products.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Найти продукты конкретного пользователя по названию")
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> searchProducts(@Valid @RequestParam("token") String token,
+                                                               @RequestParam("query") String query,
+                                                               @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return productService.searchProducts(token, query, limit)
+                .thenApply(products -> !products.isEmpty() ? ResponseEntity.ok(products) : ResponseEntity.noContent().build());
+    }
+
+    /**
+     * METHOD POST: refreshProductTypes.
+     * This method reload product types catalog on all nodes.
+     *
+     * @param refreshKey Key of refresh.
+     * @return NO_CONTENT (204) or FORBIDDEN (403).
+     */
+    @Operation(summary = "Обновить справочник типов продуктов")
+    @PostMapping("/types/refresh")
+    public CompletableFuture<ResponseEntity<?>> refreshProductTypes(@RequestHeader(value = "X-Refresh-Key", required = false) String refreshKey) {
+        return productService.refreshProductTypes(refreshKey)
+                .thenApply(result -> ResponseEntity.noContent().build());
+    }
+
     //TODO: Create default updating product's expired date
     /**
      * METHOD POST: addProduct.
@@ -156,6 +314,39 @@ public class ProductController {
                 .thenApply(createdProduct -> ResponseEntity.ok("Product created with ID: " + createdProduct.getId()));
     }
 
+    /**
+     * METHOD POST: addProducts.
+     * This method add list of user's products in one batch.
+     *
+     * @param token User token.
+     * @param products New products.
+     * @return OK (200) or BAD_REQUEST (400) if no product was created.
+     */
+    @Operation(summary = "Добавить список продуктов в холодильник")
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> addProducts(@RequestBody List<ProductDto> products, @Valid @RequestParam("token") String token) {
+        return productService.addProducts(token, products)
+                .thenApply(result -> !result.getCreated().isEmpty() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result));
+    }
+
+    /**
+     * METHOD PATCH: consumeProduct.
+     * This method decrease quantity of user's product and delete it when nothing is left.
+     *
+     * @param id Identity of product.
+     * @param quantity Consumed quantity.
+     * @param token User token.
+     * @return OK (200).
+     */
+    @Operation(summary = "Израсходовать часть продукта")
+    @PatchMapping("/{id}/consume")
+    public CompletableFuture<ResponseEntity<?>> consumeProduct(@PathVariable("id") Long id,
+                                                               @RequestParam("quantity") int quantity,
+                                                               @Valid @RequestParam("token") String token) {
+        return productService.consumeProduct(id, token, quantity)
+                .thenApply(result -> ResponseEntity.ok(result));
+    }
+
     /**
      * METHOD DELETE: deleteAllProduct.
      * This method send response after deleted of products by user.
@@ -229,4 +420,46 @@ public class ProductController {
     public ResponseEntity<String> handleProductException(ProductException exception){
         return ResponseEntity.badRequest().body(exception.getMessage());
     }
+
+    /**
+     * METHOD ExceptionHandler: handleProductAccessException.
+     * This method is handler of ProductAccessException.
+     *
+     * @param exception ProductAccessException.
+     * @return FORBIDDEN (403).
+     */
+    @Operation(summary = "Доступ запрещён")
+    @ExceptionHandler(ProductAccessException.class)
+    public ResponseEntity<String> handleProductAccessException(ProductAccessException exception){
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(exception.getMessage());
+    }
+
+    /**
+     * METHOD ExceptionHandler: handleProductOverloadedException.
+     * This method is handler of ProductOverloadedException.
+     *
+     * @param exception ProductOverloadedException.
+     * @return TOO_MANY_REQUESTS (429).
+     */
+    @Operation(summary = "Сервис перегружен")
+    @ExceptionHandler(ProductOverloadedException.class)
+    public ResponseEntity<String> handleProductOverloadedException(ProductOverloadedException exception){
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exception.getMessage());
+    }
+
+    /**
+     * METHOD ExceptionHandler: handleTaskRejectedException.
+     * This method is handler of TaskRejectedException when executor is shut down.
+     * Full executor queue is answered by ProductOverloadedException of its rejection handler.
+     *
+     * @param exception TaskRejectedException.
+     * @return SERVICE_UNAVAILABLE (503).
+     */
+    @Operation(summary = "Сервис останавливается")
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleTaskRejectedException(TaskRejectedException exception){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Service is unavailable, retry later.");
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class NotificationDto {
+    private String token;
+
+    private String message;
+
+    private String notificationType;
+
+    private String timestamp;
+}
@@ -0,0 +1,16 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ProductBatchResultDto {
+    private Map<Integer, Long> created;
+
+    private Map<Integer, String> errors;
+}
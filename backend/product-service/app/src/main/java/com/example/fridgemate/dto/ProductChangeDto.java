@@ -0,0 +1,23 @@
+package com.example.fridgemate.dto;
+
+import com.example.fridgemate.entity.ProductEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeDto {
+    private long version;
+
+    private String operation;
+
+    private Long productId;
+
+    private ProductEntity product;
+
+    private Integer quantity;
+}
@@ -0,0 +1,20 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ProductChangedEventDto {
+    private Long ownerId;
+
+    private String operation;
+
+    private List<Long> productIds;
+
+    private String timestamp;
+}
@@ -0,0 +1,18 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ProductChangesDto {
+    private long version;
+
+    private boolean resync;
+
+    private List<ProductChangeDto> changes;
+}
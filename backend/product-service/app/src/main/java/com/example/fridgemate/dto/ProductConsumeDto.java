@@ -0,0 +1,16 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ProductConsumeDto {
+    private Long id;
+
+    private int quantity;
+
+    private boolean deleted;
+}
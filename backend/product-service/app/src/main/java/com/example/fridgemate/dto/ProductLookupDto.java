@@ -0,0 +1,17 @@
+package com.example.fridgemate.dto;
+
+import com.example.fridgemate.entity.ProductEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ProductLookupDto {
+    private List<ProductEntity> products;
+
+    private List<Long> missing;
+}
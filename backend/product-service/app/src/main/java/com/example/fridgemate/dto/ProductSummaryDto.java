@@ -0,0 +1,21 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ProductSummaryDto {
+    private long count;
+
+    private BigDecimal amount;
+
+    private Map<String, Long> byType;
+
+    private Map<String, Long> byExpiry;
+}
@@ -14,12 +14,16 @@ import java.time.LocalDate;
 @Table(name = "products")
 public class ProductEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "token", nullable = false)
     private String token;
 
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     @Column(name = "name", nullable = false)
     private String name;
 
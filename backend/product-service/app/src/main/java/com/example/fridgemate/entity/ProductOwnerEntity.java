@@ -0,0 +1,18 @@
+package com.example.fridgemate.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "product_owners")
+public class ProductOwnerEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "subject", nullable = false, unique = true)
+    private String subject;
+}
@@ -0,0 +1,7 @@
+package com.example.fridgemate.exception;
+
+public class ProductAccessException extends RuntimeException {
+    public ProductAccessException(String message) {
+        super(message);
+    }
+}
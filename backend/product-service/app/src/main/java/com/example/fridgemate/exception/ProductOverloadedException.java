@@ -0,0 +1,13 @@
+package com.example.fridgemate.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ProductOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ProductOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
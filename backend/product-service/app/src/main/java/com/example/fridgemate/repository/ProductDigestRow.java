@@ -0,0 +1,22 @@
+package com.example.fridgemate.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Columns of an expiring product row read by the daily digest scan.
+ */
+public interface ProductDigestRow {
+    Long getId();
+
+    Long getOwnerId();
+
+    String getToken();
+
+    String getName();
+
+    Integer getExpiryEpochDay();
+
+    default LocalDate getExpiryDate() {
+        return LocalDate.ofEpochDay(getExpiryEpochDay());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.fridgemate.repository;
+
+import com.example.fridgemate.entity.ProductOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEntity, Long> {
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    @Query(value = "SELECT * FROM product_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<ProductOutboxEntity> findBatch(@Param("limit") int limit);
+}
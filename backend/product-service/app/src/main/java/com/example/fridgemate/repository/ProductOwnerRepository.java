@@ -0,0 +1,31 @@
+package com.example.fridgemate.repository;
+
+import com.example.fridgemate.entity.ProductOwnerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ProductOwnerRepository extends JpaRepository<ProductOwnerEntity, Long> {
+    @Transactional
+    @Query(value = "INSERT INTO product_owners (subject) VALUES (:subject) "
+            + "ON CONFLICT (subject) DO UPDATE SET subject = EXCLUDED.subject RETURNING id", nativeQuery = true)
+    Long upsertReturningId(@Param("subject") String subject);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE products SET owner_id = :ownerId WHERE token = :token AND owner_id IS NULL", nativeQuery = true)
+    int backfillProducts(@Param("token") String token, @Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT DISTINCT token FROM products WHERE owner_id IS NULL AND token > :afterToken "
+            + "ORDER BY token LIMIT :limit", nativeQuery = true)
+    List<String> findTokensWithoutOwner(@Param("afterToken") String afterToken, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM products WHERE owner_id IS NULL", nativeQuery = true)
+    long countProductsWithoutOwner();
+}
@@ -2,15 +2,114 @@ package com.example.fridgemate.repository;
 
 import com.example.fridgemate.entity.ProductEntity;
 import com.example.fridgemate.entity.ProductTypeEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
-    Optional<List<ProductEntity>> findAllByTypeAndToken(ProductTypeEntity type, String token);
-    List<ProductEntity> findAllByToken(String token);
+    String RETURNING_REMOVED = "RETURNING id, owner_id AS \"ownerId\", type_id AS \"typeId\", "
+            + "(expiry_date - DATE '1970-01-01') AS \"expiryEpochDay\", amount";
+
+    @EntityGraph(attributePaths = "type")
+    Optional<List<ProductEntity>> findAllByTypeAndOwnerId(ProductTypeEntity type, Long ownerId);
+
+    @EntityGraph(attributePaths = "type")
+    List<ProductEntity> findAllByOwnerId(Long ownerId);
+
+    @EntityGraph(attributePaths = "type")
+    List<ProductEntity> findAllByIdIn(Collection<Long> ids);
+
+    boolean existsByOwnerId(Long ownerId);
+
+    @Query("SELECT DISTINCT p.type FROM ProductEntity p WHERE p.ownerId = :ownerId")
+    List<ProductTypeEntity> findDistinctTypesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @EntityGraph(attributePaths = "type")
+    @Query("SELECT p FROM ProductEntity p WHERE p.ownerId = :ownerId AND p.expiryDate < :date")
+    List<ProductEntity> findAllByOwnerIdExpiringBefore(@Param("ownerId") Long ownerId,
+                                                       @Param("date") LocalDate date);
+
+    @EntityGraph(attributePaths = "type")
+    @Query("SELECT p FROM ProductEntity p WHERE p.ownerId = :ownerId AND p.expiryDate > :from AND p.expiryDate <= :to")
+    List<ProductEntity> findAllByOwnerIdExpiringBetween(@Param("ownerId") Long ownerId,
+                                                        @Param("from") LocalDate from,
+                                                        @Param("to") LocalDate to);
+
+    @EntityGraph(attributePaths = "type")
+    List<ProductEntity> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "type")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM ProductEntity p WHERE p.ownerId = :ownerId ORDER BY p.id")
+    Stream<ProductEntity> streamAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT id FROM products WHERE owner_id = :ownerId AND (name ILIKE :pattern OR name % :query) "
+            + "ORDER BY similarity(name, :query) DESC, id LIMIT :limit", nativeQuery = true)
+    List<Long> searchIdsByOwnerIdAndName(@Param("ownerId") Long ownerId,
+                                             @Param("query") String query,
+                                             @Param("pattern") String pattern,
+                                             @Param("limit") int limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.ownerId AS ownerId, p.type.id AS typeId, p.expiryDate AS expiryDate, COUNT(p) AS productsCount, SUM(p.amount) AS amount "
+            + "FROM ProductEntity p WHERE p.ownerId IS NOT NULL GROUP BY p.ownerId, p.type.id, p.expiryDate ORDER BY p.ownerId")
+    Stream<ProductSummaryRow> streamSummaryRows();
+
+    @Query("SELECT p.ownerId AS ownerId, p.type.id AS typeId, p.expiryDate AS expiryDate, COUNT(p) AS productsCount, SUM(p.amount) AS amount "
+            + "FROM ProductEntity p WHERE p.ownerId = :ownerId GROUP BY p.ownerId, p.type.id, p.expiryDate")
+    List<ProductSummaryRow> findSummaryRowsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT id, owner_id AS \"ownerId\", token, name, (expiry_date - DATE '1970-01-01') AS \"expiryEpochDay\" "
+            + "FROM products WHERE MOD(owner_id, :partitions) = :partition "
+            + "AND expiry_date >= :from AND expiry_date <= :to AND (owner_id, id) > (:afterOwnerId, :afterId) "
+            + "ORDER BY owner_id, id LIMIT :limit", nativeQuery = true)
+    List<ProductDigestRow> findDigestPage(@Param("partitions") int partitions,
+                                          @Param("partition") int partition,
+                                          @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to,
+                                          @Param("afterOwnerId") long afterOwnerId,
+                                          @Param("afterId") long afterId,
+                                          @Param("limit") int limit);
+
+    @Transactional
+    @Query(value = "DELETE FROM products WHERE id = :id " + RETURNING_REMOVED, nativeQuery = true)
+    Optional<RemovedProduct> deleteByIdReturning(@Param("id") Long id);
+
+    @Transactional
+    @Query(value = "DELETE FROM products WHERE owner_id = :ownerId " + RETURNING_REMOVED, nativeQuery = true)
+    List<RemovedProduct> deleteAllByOwnerIdReturning(@Param("ownerId") Long ownerId);
+
+    @Transactional
+    @Query(value = "DELETE FROM products WHERE owner_id = :ownerId AND expiry_date < :date " + RETURNING_REMOVED, nativeQuery = true)
+    List<RemovedProduct> deleteAllByOwnerIdExpiringBeforeReturning(@Param("ownerId") Long ownerId,
+                                                                   @Param("date") LocalDate date);
+
+    @Transactional
+    @Query(value = "UPDATE products SET quantity = quantity - :quantity "
+            + "WHERE id = :id AND owner_id = :ownerId AND quantity >= :quantity RETURNING quantity", nativeQuery = true)
+    Optional<Integer> consumeReturningQuantity(@Param("id") Long id,
+                                               @Param("ownerId") Long ownerId,
+                                               @Param("quantity") int quantity);
+
+    @Transactional
+    @Query(value = "DELETE FROM products WHERE id = :id AND quantity = 0 " + RETURNING_REMOVED, nativeQuery = true)
+    Optional<RemovedProduct> deleteConsumedReturning(@Param("id") Long id);
 }
@@ -0,0 +1,19 @@
+package com.example.fridgemate.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Count and amount of products of one user grouped by type and expiry date.
+ */
+public interface ProductSummaryRow {
+    Long getOwnerId();
+
+    Long getTypeId();
+
+    LocalDate getExpiryDate();
+
+    Long getProductsCount();
+
+    BigDecimal getAmount();
+}
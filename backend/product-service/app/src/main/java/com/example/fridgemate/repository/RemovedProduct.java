@@ -0,0 +1,23 @@
+package com.example.fridgemate.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Columns of a deleted product row returned by DELETE ... RETURNING.
+ */
+public interface RemovedProduct {
+    Long getId();
+
+    Long getOwnerId();
+
+    Long getTypeId();
+
+    Integer getExpiryEpochDay();
+
+    BigDecimal getAmount();
+
+    default LocalDate getExpiryDate() {
+        return LocalDate.ofEpochDay(getExpiryEpochDay());
+    }
+}
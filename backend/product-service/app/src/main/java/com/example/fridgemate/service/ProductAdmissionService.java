@@ -0,0 +1,217 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.exception.ProductOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ProductAdmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductAdmissionService.class);
+    private static final double LATENCY_WEIGHT = 0.2;
+    private static final long MAX_RETRY_AFTER_SECONDS = 30;
+    public static final String READ_EXECUTOR = "read";
+    public static final String WRITE_EXECUTOR = "write";
+    private final MeterRegistry meterRegistry;
+    private final double bulkReadQueueLimit;
+    private final double readQueueLimit;
+    private final double writeQueueLimit;
+    private final long latencyTargetMicros;
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+    private final Map<String, ExecutorStats> executors = new ConcurrentHashMap<>();
+
+    /**
+     * Priority of request, lower priority is shed first.
+     */
+    public enum Priority {
+        WRITE, READ, BULK_READ
+    }
+
+    /**
+     * Latency, rejections and pool of one executor.
+     */
+    private static final class ExecutorStats {
+        private final String name;
+        private final AtomicLong latencyMicros = new AtomicLong();
+        private final Counter rejections;
+        private volatile ThreadPoolTaskExecutor executor;
+
+        private ExecutorStats(String name, Counter rejections) {
+            this.name = name;
+            this.rejections = rejections;
+        }
+    }
+
+    @Autowired
+    public ProductAdmissionService(MeterRegistry meterRegistry,
+                                   @Value("${product.admission.bulk-read-queue-limit:0.5}") double bulkReadQueueLimit,
+                                   @Value("${product.admission.read-queue-limit:0.8}") double readQueueLimit,
+                                   @Value("${product.admission.write-queue-limit:1.0}") double writeQueueLimit,
+                                   @Value("${product.admission.latency-target-ms:500}") long latencyTargetMs) {
+        this.meterRegistry = meterRegistry;
+        this.bulkReadQueueLimit = bulkReadQueueLimit;
+        this.readQueueLimit = readQueueLimit;
+        this.writeQueueLimit = writeQueueLimit;
+        this.latencyTargetMicros = TimeUnit.MILLISECONDS.toMicros(latencyTargetMs);
+        for (Priority priority : Priority.values()) {
+            rejections.put(priority, Counter.builder("product.admission.rejected")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * METHOD: stats.
+     * This method get stats of executor and register its latency and rejection meters on first use.
+     *
+     * @param name Executor name.
+     * @return Executor stats.
+     */
+    private ExecutorStats stats(String name) {
+        return executors.computeIfAbsent(name, key -> {
+            ExecutorStats stats = new ExecutorStats(key, Counter.builder("product.executor.rejected")
+                    .tag("executor", key)
+                    .register(meterRegistry));
+            Gauge.builder("product.executor.latency.ewma", stats.latencyMicros, latency -> latency.get() / 1000.0)
+                    .tag("executor", key)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            return stats;
+        });
+    }
+
+    /**
+     * METHOD: decorator.
+     * This method get decorator which measure time from submit to finish of task of executor.
+     *
+     * @param name Executor name.
+     * @return Task decorator.
+     */
+    public TaskDecorator decorator(String name) {
+        ExecutorStats stats = stats(name);
+        return runnable -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                try {
+                    runnable.run();
+                } finally {
+                    long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - submitted);
+                    stats.latencyMicros.accumulateAndGet(latency,
+                            (average, sample) -> average == 0 ? sample : (long) (average + LATENCY_WEIGHT * (sample - average)));
+                }
+            };
+        };
+    }
+
+    /**
+     * METHOD: rejectionHandler.
+     * This method get handler of task rejected by full queue of executor.
+     * Rejection is counted for this executor and answered with its own retry time.
+     *
+     * @param name Executor name.
+     * @return Rejected execution handler.
+     */
+    public RejectedExecutionHandler rejectionHandler(String name) {
+        ExecutorStats stats = stats(name);
+        return (runnable, pool) -> {
+            stats.rejections.increment();
+            long retryAfter = retryAfterSeconds(stats);
+            logger.warn("Product task rejected by executor: Executor: {}, Retry after: {}s", stats.name, retryAfter);
+            throw new ProductOverloadedException("Service is overloaded, retry later.", retryAfter);
+        };
+    }
+
+    /**
+     * METHOD: monitor.
+     * This method attach executor and expose its queue depth, active count and pool size.
+     *
+     * @param name Executor name.
+     * @param executor Executor.
+     */
+    public void monitor(String name, ThreadPoolTaskExecutor executor) {
+        stats(name).executor = executor;
+        Gauge.builder("product.executor.queue.size", executor, ProductAdmissionService::queueSize)
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("product.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("product.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * METHOD: admit.
+     * This method check load of executor of request before task is queued.
+     * Bulk reads are shed first, then reads, both by load of read executor.
+     * Writes run on separate write executor, so they are not queued behind reads
+     * and are shed only when its own queue is full.
+     * Latency is taken into account only while tasks are waiting, so stale average does not block idle service.
+     *
+     * @param priority Priority of request.
+     */
+    public void admit(Priority priority) {
+        ExecutorStats stats = stats(priority == Priority.WRITE ? WRITE_EXECUTOR : READ_EXECUTOR);
+        ThreadPoolTaskExecutor current = stats.executor;
+        if (current == null) {
+            return;
+        }
+        int queued = queueSize(current);
+        int capacity = current.getQueueCapacity();
+        double queueLoad = capacity > 0 ? (double) queued / capacity : 0;
+        long latency = queued > 0 ? stats.latencyMicros.get() : 0;
+        boolean overloaded = switch (priority) {
+            case WRITE -> queueLoad >= writeQueueLimit;
+            case READ -> queueLoad >= readQueueLimit || latency > 2 * latencyTargetMicros;
+            case BULK_READ -> queueLoad >= bulkReadQueueLimit || latency > latencyTargetMicros;
+        };
+        if (overloaded) {
+            rejections.get(priority).increment();
+            long retryAfter = retryAfterSeconds(stats);
+            logger.warn("Product request rejected: Priority: {}, Retry after: {}s", priority, retryAfter);
+            throw new ProductOverloadedException("Service is overloaded, retry later.", retryAfter);
+        }
+    }
+
+    /**
+     * METHOD: retryAfterSeconds.
+     * This method estimate time to drain current queue of executor.
+     *
+     * @param stats Executor stats.
+     * @return Seconds before retry.
+     */
+    private static long retryAfterSeconds(ExecutorStats stats) {
+        ThreadPoolTaskExecutor current = stats.executor;
+        if (current == null) {
+            return 1;
+        }
+        long drainMicros = queueSize(current) * stats.latencyMicros.get() / Math.max(1, current.getMaxPoolSize());
+        return Math.min(MAX_RETRY_AFTER_SECONDS, Math.max(1, TimeUnit.MICROSECONDS.toSeconds(drainMicros) + 1));
+    }
+
+    /**
+     * METHOD: queueSize.
+     * This method get count of queued tasks.
+     *
+     * @param executor Executor.
+     * @return Queue size.
+     */
+    private static int queueSize(ThreadPoolTaskExecutor executor) {
+        return executor.getThreadPoolExecutor().getQueue().size();
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+public class ProductCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheService.class);
+    private static final long FRIDGE_TTL_SECONDS = TimeUnit.HOURS.toSeconds(24);
+    private static final long PRODUCT_TTL_SECONDS = TimeUnit.HOURS.toSeconds(24);
+    private static final long MISSING_PRODUCT_TTL_SECONDS = 60;
+    private static final long TTL_JITTER_SECONDS = TimeUnit.HOURS.toSeconds(1);
+    private static final String MISSING_PRODUCT = "missing";
+    private static final RedisScript<Long> FILL_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[2]) == ARGV[1] then "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) return 1 end "
+                    + "return 0",
+            Long.class);
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductChangeLogService productChangeLogService;
+    private final Executor executor;
+    private final boolean refreshAheadEnabled;
+    private final long refreshAheadSeconds;
+    private final SingleFlight<String, List<ProductEntity>> fridgeLoads = new SingleFlight<>();
+    private final SingleFlight<Long, Optional<ProductEntity>> productLoads = new SingleFlight<>();
+    private final Counter fridgeHits;
+    private final Counter fridgeMisses;
+
+    @Autowired
+    public ProductCacheService(RedisTemplate<String, Object> redisTemplate,
+                               ProductChangeLogService productChangeLogService,
+                               MeterRegistry meterRegistry,
+                               @Qualifier("productExecutor") Executor executor,
+                               @Value("${product.cache.refresh-ahead.enabled:false}") boolean refreshAheadEnabled,
+                               @Value("${product.cache.refresh-ahead.seconds:600}") long refreshAheadSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.productChangeLogService = productChangeLogService;
+        this.executor = executor;
+        this.refreshAheadEnabled = refreshAheadEnabled;
+        this.refreshAheadSeconds = refreshAheadSeconds;
+        this.fridgeHits = Counter.builder("product.fridge.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.fridgeMisses = Counter.builder("product.fridge.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("product.fridge.cache.hit.ratio", this, ProductCacheService::fridgeHitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * METHOD: fridgeKey.
+     * This method build cache key of personal product list.
+     *
+     * @param ownerId Owner id.
+     * @return Cache key.
+     */
+    private String fridgeKey(Long ownerId) {
+        return "fridge: " + ownerId;
+    }
+
+    /**
+     * METHOD: productKey.
+     * This method build cache key of product.
+     *
+     * @param id Identity of product.
+     * @return Cache key.
+     */
+    private String productKey(Long id) {
+        return "product: " + id;
+    }
+
+    /**
+     * METHOD: ttlWithJitter.
+     * This method add random jitter to TTL, so keys written together do not expire together.
+     *
+     * @param ttlSeconds Base TTL in seconds.
+     * @return TTL in seconds.
+     */
+    private long ttlWithJitter(long ttlSeconds) {
+        return ttlSeconds + ThreadLocalRandom.current().nextLong(TTL_JITTER_SECONDS);
+    }
+
+    /**
+     * METHOD: fridgeHitRatio.
+     * This method calculate share of fridge reads served from cache.
+     *
+     * @return Hit ratio from 0 to 1.
+     */
+    private double fridgeHitRatio() {
+        double total = fridgeHits.count() + fridgeMisses.count();
+        return total == 0 ? 0 : fridgeHits.count() / total;
+    }
+
+    /**
+     * METHOD: findFridge.
+     * This method get cached personal product list.
+     *
+     * @param ownerId Owner id.
+     * @return An optional list of {@link ProductEntity}.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<List<ProductEntity>> findFridge(Long ownerId) {
+        Object cachedFridgeObj = redisTemplate.opsForValue().get(fridgeKey(ownerId));
+        if (cachedFridgeObj instanceof List) {
+            fridgeHits.increment();
+            return Optional.of((List<ProductEntity>) cachedFridgeObj);
+        }
+        fridgeMisses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * METHOD: getFridge.
+     * This method get cached personal product list or load and cache it.
+     * Fridge version is read before load and list is cached only if version is still the same,
+     * so list loaded before a write is not cached after eviction of that write.
+     *
+     * @param ownerId Owner id.
+     * @param loader Loader of product list from db.
+     * @return List of {@link ProductEntity}.
+     */
+    public List<ProductEntity> getFridge(Long ownerId, Supplier<List<ProductEntity>> loader) {
+        return findFridge(ownerId).orElseGet(() -> {
+            String key = fridgeKey(ownerId);
+            return fridgeLoads.load(key, () -> {
+                long version = productChangeLogService.getVersion(ownerId);
+                List<ProductEntity> products = new ArrayList<>(loader.get());
+                fillFridge(ownerId, version, products);
+                return products;
+            });
+        });
+    }
+
+    /**
+     * METHOD: fillFridge.
+     * This method cache personal product list in one round trip if fridge version has not changed since load.
+     *
+     * @param ownerId Owner id.
+     * @param version Fridge version read before load.
+     * @param products Loaded products.
+     */
+    @SuppressWarnings("unchecked")
+    private void fillFridge(Long ownerId, long version, List<ProductEntity> products) {
+        byte[] value = ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(products);
+        Long filled = redisTemplate.execute(FILL_IF_VERSION_SCRIPT, RedisSerializer.byteArray(), new GenericToStringSerializer<>(Long.class),
+                List.of(fridgeKey(ownerId), ProductChangeLogService.versionKey(ownerId)),
+                String.valueOf(version).getBytes(StandardCharsets.UTF_8),
+                value,
+                String.valueOf(ttlWithJitter(FRIDGE_TTL_SECONDS)).getBytes(StandardCharsets.UTF_8));
+        if (filled == null || filled == 0) {
+            logger.info("Fridge cache fill skipped, version changed during load");
+        }
+    }
+
+    /**
+     * METHOD: getProduct.
+     * This method get cached product or load and cache it.
+     * Concurrent misses of one id share one load, missing ids are cached for a short time.
+     *
+     * @param id Identity of product.
+     * @param loader Loader of product from db.
+     * @return An optional {@link ProductEntity}.
+     */
+    public Optional<ProductEntity> getProduct(Long id, Function<Long, Optional<ProductEntity>> loader) {
+        Object cachedProductObj = redisTemplate.opsForValue().get(productKey(id));
+        if (cachedProductObj instanceof ProductEntity cachedProduct) {
+            refreshAhead(id, loader);
+            return Optional.of(cachedProduct);
+        }
+        if (MISSING_PRODUCT.equals(cachedProductObj)) {
+            return Optional.empty();
+        }
+        return loadProduct(id, loader);
+    }
+
+    /**
+     * METHOD: loadProduct.
+     * This method load product from db once per id and cache result.
+     *
+     * @param id Identity of product.
+     * @param loader Loader of product from db.
+     * @return An optional {@link ProductEntity}.
+     */
+    private Optional<ProductEntity> loadProduct(Long id, Function<Long, Optional<ProductEntity>> loader) {
+        return productLoads.load(id, () -> {
+            Optional<ProductEntity> product = loader.apply(id);
+            if (product.isPresent()) {
+                cacheProduct(product.get());
+            } else {
+                redisTemplate.opsForValue().set(productKey(id), MISSING_PRODUCT, MISSING_PRODUCT_TTL_SECONDS, TimeUnit.SECONDS);
+            }
+            return product;
+        });
+    }
+
+    /**
+     * METHOD: refreshAhead.
+     * This method reload product in background when its cache entry is close to expiry.
+     *
+     * @param id Identity of product.
+     * @param loader Loader of product from db.
+     */
+    private void refreshAhead(Long id, Function<Long, Optional<ProductEntity>> loader) {
+        if (!refreshAheadEnabled) {
+            return;
+        }
+        Long ttl = redisTemplate.getExpire(productKey(id), TimeUnit.SECONDS);
+        if (ttl != null && ttl >= 0 && ttl < refreshAheadSeconds) {
+            CompletableFuture.runAsync(() -> loadProduct(id, loader), executor);
+        }
+    }
+
+    /**
+     * METHOD: cacheProduct.
+     * This method cache product.
+     *
+     * @param product Product.
+     */
+    public void cacheProduct(ProductEntity product) {
+        redisTemplate.opsForValue().set(productKey(product.getId()), product, ttlWithJitter(PRODUCT_TTL_SECONDS), TimeUnit.SECONDS);
+    }
+
+    /**
+     * METHOD: getProducts.
+     * This method get products by ids with one MGET, load misses with one query
+     * and backfill cache with one pipelined round trip.
+     *
+     * @param ids Identities of products.
+     * @param loader Loader of products from db.
+     * @return Map of found {@link ProductEntity} by id.
+     */
+    public Map<Long, ProductEntity> getProducts(Collection<Long> ids, Function<Collection<Long>, List<ProductEntity>> loader) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<Object> cachedProducts = redisTemplate.opsForValue().multiGet(distinctIds.stream().map(this::productKey).toList());
+        Map<Long, ProductEntity> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Object cachedProductObj = cachedProducts == null ? null : cachedProducts.get(i);
+            if (cachedProductObj instanceof ProductEntity cachedProduct) {
+                found.put(distinctIds.get(i), cachedProduct);
+            } else if (!MISSING_PRODUCT.equals(cachedProductObj)) {
+                misses.add(distinctIds.get(i));
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<ProductEntity> loadedProducts = loader.apply(misses);
+            loadedProducts.forEach(product -> found.put(product.getId(), product));
+            backfill(loadedProducts, misses.stream().filter(id -> !found.containsKey(id)).toList());
+        }
+        return found;
+    }
+
+    /**
+     * METHOD: cacheProducts.
+     * This method cache list of products in one pipelined round trip.
+     *
+     * @param products Products.
+     */
+    public void cacheProducts(List<ProductEntity> products) {
+        backfill(products, List.of());
+    }
+
+    /**
+     * METHOD: backfill.
+     * This method cache found products and mark missing ids in one pipelined round trip.
+     *
+     * @param products Found products.
+     * @param missingIds Identities of missing products.
+     */
+    private void backfill(List<ProductEntity> products, List<Long> missingIds) {
+        if (products.isEmpty() && missingIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                products.forEach(product -> redisOperations.opsForValue()
+                        .set(productKey(product.getId()), product, ttlWithJitter(PRODUCT_TTL_SECONDS), TimeUnit.SECONDS));
+                missingIds.forEach(id -> redisOperations.opsForValue()
+                        .set(productKey(id), MISSING_PRODUCT, MISSING_PRODUCT_TTL_SECONDS, TimeUnit.SECONDS));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * METHOD: evictProducts.
+     * This method delete cached personal product list and cached products with one UNLINK.
+     *
+     * @param ownerId Owner id.
+     * @param ids Identities of changed products.
+     */
+    public void evictProducts(Long ownerId, Collection<Long> ids) {
+        List<String> keys = new ArrayList<>(ids.size() + 1);
+        keys.add(fridgeKey(ownerId));
+        ids.forEach(id -> keys.add(productKey(id)));
+        redisTemplate.unlink(keys);
+        logger.info("Products cache evicted: Count: {}", ids.size());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.ProductChangeDto;
+import com.example.fridgemate.dto.ProductChangesDto;
+import com.example.fridgemate.entity.ProductEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ProductChangeLogService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeLogService.class);
+    public static final String ADD = "ADD";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+    private static final int MAX_LOG_SIZE = 1000;
+    private static final long LOG_TTL_DAYS = 30;
+    private static final RedisScript<Long> NEXT_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('SET', KEYS[1], ARGV[1]) end "
+                    + "return redis.call('INCRBY', KEYS[1], ARGV[2])",
+            Long.class);
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    public ProductChangeLogService(RedisTemplate<String, Object> redisTemplate,
+                                   StringRedisTemplate stringRedisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * METHOD: versionKey.
+     * This method build key of personal fridge version.
+     *
+     * @param ownerId Owner id.
+     * @return Version key.
+     */
+    static String versionKey(Long ownerId) {
+        return "version: " + ownerId;
+    }
+
+    /**
+     * METHOD: logKey.
+     * This method build key of personal change log.
+     *
+     * @param ownerId Owner id.
+     * @return Change log key.
+     */
+    private String logKey(Long ownerId) {
+        return "changes: " + ownerId;
+    }
+
+    /**
+     * METHOD: incrementVersion.
+     * This method increase personal version by delta in one round trip.
+     * New version starts from current time, so versions are not reused after Redis data loss.
+     *
+     * @param ownerId Owner id.
+     * @param delta Count of changes.
+     * @return New version.
+     */
+    private long incrementVersion(Long ownerId, int delta) {
+        Long version = stringRedisTemplate.execute(NEXT_VERSION_SCRIPT, List.of(versionKey(ownerId)),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(delta));
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * METHOD: getVersion.
+     * This method get current personal fridge version.
+     *
+     * @param ownerId Owner id.
+     * @return Version.
+     */
+    public long getVersion(Long ownerId) {
+        return incrementVersion(ownerId, 0);
+    }
+
+    /**
+     * METHOD: recordAdded.
+     * This method record added products.
+     *
+     * @param ownerId Owner id.
+     * @param products Added products.
+     */
+    public void recordAdded(Long ownerId, List<ProductEntity> products) {
+        record(ownerId, products.stream()
+                .map(product -> new ProductChangeDto(0, ADD, product.getId(), product, null))
+                .toList());
+    }
+
+    /**
+     * METHOD: recordUpdated.
+     * This method record new quantity of product.
+     *
+     * @param ownerId Owner id.
+     * @param id Identity of product.
+     * @param quantity New quantity.
+     */
+    public void recordUpdated(Long ownerId, Long id, int quantity) {
+        record(ownerId, List.of(new ProductChangeDto(0, UPDATE, id, null, quantity)));
+    }
+
+    /**
+     * METHOD: recordDeleted.
+     * This method record deleted products.
+     *
+     * @param ownerId Owner id.
+     * @param ids Identities of deleted products.
+     */
+    public void recordDeleted(Long ownerId, Collection<Long> ids) {
+        record(ownerId, ids.stream()
+                .map(id -> new ProductChangeDto(0, DELETE, id, null, null))
+                .toList());
+    }
+
+    /**
+     * METHOD: record.
+     * This method give versions to changes and append them to personal change log.
+     * Log keeps only last changes, older clients have to resync.
+     *
+     * @param ownerId Owner id.
+     * @param changes Changes without versions.
+     */
+    private void record(Long ownerId, List<ProductChangeDto> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        long lastVersion = incrementVersion(ownerId, changes.size());
+        long version = lastVersion - changes.size();
+        for (ProductChangeDto change : changes) {
+            change.setVersion(++version);
+        }
+        String key = logKey(ownerId);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                changes.forEach(change -> redisOperations.opsForZSet().add(key, change, change.getVersion()));
+                redisOperations.opsForZSet().removeRange(key, 0, -MAX_LOG_SIZE - 1);
+                redisOperations.expire(key, LOG_TTL_DAYS, TimeUnit.DAYS);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * METHOD: getChanges.
+     * This method get personal changes after given version.
+     * Resync is required when log does not contain every change after that version.
+     *
+     * @param ownerId Owner id.
+     * @param since Version known by client.
+     * @return {@link ProductChangesDto}.
+     */
+    public ProductChangesDto getChanges(Long ownerId, long since) {
+        long version = getVersion(ownerId);
+        if (since == version) {
+            return new ProductChangesDto(version, false, List.of());
+        }
+        if (since > version) {
+            logger.info("Client version is ahead of change log, resync required");
+            return new ProductChangesDto(version, true, List.of());
+        }
+        Set<Object> entries = redisTemplate.opsForZSet().rangeByScore(logKey(ownerId), since + 1, version);
+        List<ProductChangeDto> changes = new ArrayList<>();
+        long expected = since + 1;
+        if (entries != null) {
+            for (Object entry : entries) {
+                ProductChangeDto change = (ProductChangeDto) entry;
+                if (change.getVersion() != expected) {
+                    break;
+                }
+                changes.add(change);
+                expected++;
+            }
+        }
+        if (expected != version + 1) {
+            logger.info("Change log was trimmed, resync required");
+            return new ProductChangesDto(version, true, List.of());
+        }
+        return new ProductChangesDto(version, false, changes);
+    }
+}
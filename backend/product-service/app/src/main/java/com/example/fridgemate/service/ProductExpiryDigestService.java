@@ -0,0 +1,291 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.NotificationDto;
+import com.example.fridgemate.repository.ProductDigestRow;
+import com.example.fridgemate.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Service
+public class ProductExpiryDigestService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductExpiryDigestService.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    static final String NOTIFICATION_TYPE = "WAR";
+    static final int MAX_MESSAGE_LENGTH = 255;
+    private static final String DONE = "done";
+    private static final Duration RUN_TTL = Duration.ofDays(2);
+    private static final Duration LOCK_TTL = Duration.ofMinutes(10);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(10);
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RestClient restClient;
+    private final Executor executor;
+    private final int days;
+    private final int partitions;
+    private final int pageSize;
+
+    @Autowired
+    public ProductExpiryDigestService(ProductRepository productRepository,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      RestClient.Builder restClientBuilder,
+                                      @Qualifier("digestExecutor") Executor executor,
+                                      @Value("${product.digest.notification-url}") String notificationUrl,
+                                      @Value("${product.digest.days:3}") int days,
+                                      @Value("${product.digest.partitions:4}") int partitions,
+                                      @Value("${product.digest.page-size:500}") int pageSize) {
+        this.productRepository = productRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        this.restClient = restClientBuilder.baseUrl(notificationUrl).requestFactory(requestFactory).build();
+        this.executor = executor;
+        this.days = days;
+        this.partitions = partitions;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * METHOD: checkpointKey.
+     * This method build key of checkpoint hash of digest run.
+     *
+     * @param date Run date.
+     * @return Checkpoint key.
+     */
+    private String checkpointKey(LocalDate date) {
+        return "digest: " + date;
+    }
+
+    /**
+     * METHOD: lockKey.
+     * This method build key of lock of digest run.
+     *
+     * @param date Run date.
+     * @return Lock key.
+     */
+    private String lockKey(LocalDate date) {
+        return "digest-lock: " + date;
+    }
+
+    /**
+     * METHOD: failedKey.
+     * This method build key of set of owners which digest was not delivered.
+     *
+     * @param date Run date.
+     * @return Dead letter key.
+     */
+    private String failedKey(LocalDate date) {
+        return "digest-failed: " + date;
+    }
+
+    /**
+     * METHOD: checkpoint.
+     * This method save progress of partition and keep checkpoint only for the run days.
+     *
+     * @param date Run date.
+     * @param field Partition field.
+     * @param value Last notified owner id or done.
+     */
+    private void checkpoint(LocalDate date, String field, String value) {
+        String key = checkpointKey(date);
+        stringRedisTemplate.opsForHash().put(key, field, value);
+        stringRedisTemplate.expire(key, RUN_TTL);
+    }
+
+    /**
+     * METHOD: renewLock.
+     * This method extend lock of run if it is still held by this run.
+     *
+     * @param date Run date.
+     * @param lockToken Token of this run.
+     */
+    private void renewLock(LocalDate date, String lockToken) {
+        Long renewed = stringRedisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(lockKey(date)),
+                lockToken, String.valueOf(LOCK_TTL.toMillis()));
+        if (renewed == null || renewed == 0) {
+            logger.error("Expiry digest lock is lost");
+            throw new IllegalStateException("Expiry digest lock is lost.");
+        }
+    }
+
+    /**
+     * METHOD: sendDigests.
+     * This method send one digest of expiring products per user once a day.
+     * Partitions by owner id are scanned in parallel, progress of each partition is kept in checkpoint,
+     * so run restarted in the same day continues after the last notified user and finished partitions are skipped.
+     * Lock is shorter than the cron period and renewed before every page and every digest,
+     * notification calls time out well before lock expires, only the run holding it may release it.
+     */
+    @Scheduled(cron = "${product.digest.cron:0 0 9-21 * * *}")
+    public void sendDigests() {
+        LocalDate today = LocalDate.now();
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(lockKey(today), lockToken, LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            logger.info("Expiry digest is already running");
+            return;
+        }
+        try {
+            List<CompletableFuture<Integer>> runs = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                runs.add(CompletableFuture.supplyAsync(() -> sendPartition(today, current, lockToken), executor));
+            }
+            int sent = runs.stream().mapToInt(CompletableFuture::join).sum();
+            logger.info("Expiry digests sent: Count: {}", sent);
+        } catch (RuntimeException exception) {
+            logger.error("Expiry digest error: {}", exception.getMessage());
+        } finally {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey(today)), lockToken);
+        }
+    }
+
+    /**
+     * METHOD: sendPartition.
+     * This method scan one partition by keyset pages ordered by owner and id
+     * and send digest when all rows of owner are read.
+     * Checkpoint is saved after every owner, failed owner is put to dead letter set and skipped.
+     *
+     * @param today Run date.
+     * @param partition Partition of owners.
+     * @param lockToken Token of this run.
+     * @return Count of sent digests.
+     */
+    private int sendPartition(LocalDate today, int partition, String lockToken) {
+        String field = "partition: " + partition;
+        String checkpoint = (String) stringRedisTemplate.opsForHash().get(checkpointKey(today), field);
+        if (DONE.equals(checkpoint)) {
+            return 0;
+        }
+        long afterOwnerId = checkpoint == null ? 0 : Long.parseLong(checkpoint);
+        long afterId = Long.MAX_VALUE;
+        List<ProductDigestRow> owned = new ArrayList<>();
+        int sent = 0;
+        List<ProductDigestRow> page;
+        do {
+            renewLock(today, lockToken);
+            page = productRepository.findDigestPage(partitions, partition, today, today.plusDays(days),
+                    afterOwnerId, afterId, pageSize);
+            for (ProductDigestRow row : page) {
+                if (!owned.isEmpty() && !owned.get(0).getOwnerId().equals(row.getOwnerId())) {
+                    sent += deliver(today, field, lockToken, owned);
+                    owned.clear();
+                }
+                owned.add(row);
+            }
+            if (!page.isEmpty()) {
+                ProductDigestRow last = page.get(page.size() - 1);
+                afterOwnerId = last.getOwnerId();
+                afterId = last.getId();
+            }
+        } while (page.size() == pageSize);
+        if (!owned.isEmpty()) {
+            sent += deliver(today, field, lockToken, owned);
+        }
+        checkpoint(today, field, DONE);
+        logger.info("Expiry digest partition {} completed: Count: {}", partition, sent);
+        return sent;
+    }
+
+    /**
+     * METHOD: deliver.
+     * This method send digest of one owner and save checkpoint after it.
+     * Failed digest is put to dead letter set, so one owner does not block the rest of partition.
+     * Lock is renewed first, so digest is never sent by run which lost it.
+     *
+     * @param today Run date.
+     * @param field Partition field.
+     * @param lockToken Token of this run.
+     * @param rows Expiring products of one owner.
+     * @return 1 if digest was sent else 0.
+     */
+    private int deliver(LocalDate today, String field, String lockToken, List<ProductDigestRow> rows) {
+        Long ownerId = rows.get(0).getOwnerId();
+        renewLock(today, lockToken);
+        int sent = 0;
+        try {
+            send(rows);
+            sent = 1;
+        } catch (RuntimeException exception) {
+            logger.error("Expiry digest of owner {} is not sent: {}", ownerId, exception.getMessage());
+            stringRedisTemplate.opsForSet().add(failedKey(today), String.valueOf(ownerId));
+            stringRedisTemplate.expire(failedKey(today), RUN_TTL);
+        }
+        checkpoint(today, field, String.valueOf(ownerId));
+        return sent;
+    }
+
+    /**
+     * METHOD: send.
+     * This method post one digest notification of user's expiring products.
+     *
+     * @param rows Expiring products of one owner ordered by id.
+     */
+    private void send(List<ProductDigestRow> rows) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(toNotification(rows))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    /**
+     * METHOD: toNotification.
+     * This method build digest in format accepted by notification-service:
+     * warning type, message up to column length and timestamp without zone.
+     *
+     * @param rows Expiring products of one owner ordered by id.
+     * @return {@link NotificationDto}.
+     */
+    NotificationDto toNotification(List<ProductDigestRow> rows) {
+        List<ProductDigestRow> sorted = rows.stream()
+                .sorted((first, second) -> first.getExpiryEpochDay().compareTo(second.getExpiryEpochDay()))
+                .toList();
+        StringBuilder message = new StringBuilder()
+                .append(rows.size()).append(rows.size() == 1 ? " product expires" : " products expire")
+                .append(" within ").append(days).append(" days: ");
+        int listed = 0;
+        for (ProductDigestRow row : sorted) {
+            String item = (listed > 0 ? ", " : "") + row.getName() + " (" + row.getExpiryDate() + ")";
+            String more = " and " + (rows.size() - listed - 1) + " more";
+            if (message.length() + item.length() + more.length() > MAX_MESSAGE_LENGTH) {
+                break;
+            }
+            message.append(item);
+            listed++;
+        }
+        if (listed < rows.size()) {
+            message.append(" and ").append(rows.size() - listed).append(" more");
+        }
+        return new NotificationDto(rows.get(0).getToken(), message.toString(), NOTIFICATION_TYPE,
+                LocalDateTime.now().format(TIMESTAMP_FORMAT));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Service
+public class ProductExpiryIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductExpiryIndexService.class);
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    public ProductExpiryIndexService(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * METHOD: userKey.
+     * This method build key of personal expiry index.
+     *
+     * @param ownerId Owner id.
+     * @return Index key.
+     */
+    private String userKey(Long ownerId) {
+        return "expiry: " + ownerId;
+    }
+
+    /**
+     * METHOD: builtKey.
+     * This method build key of flag that personal expiry index was loaded from db.
+     *
+     * @param ownerId Owner id.
+     * @return Flag key.
+     */
+    private String builtKey(Long ownerId) {
+        return "expiry-built: " + ownerId;
+    }
+
+    /**
+     * METHOD: index.
+     * This method add products to personal expiry index in one pipelined round trip.
+     * Score of product is epoch day of its expiry date.
+     *
+     * @param products Products of one user.
+     */
+    public void index(List<ProductEntity> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                products.forEach(product -> {
+                    redisOperations.opsForZSet().add(userKey(product.getOwnerId()),
+                            String.valueOf(product.getId()), product.getExpiryDate().toEpochDay());
+                });
+                return null;
+            }
+        });
+    }
+
+    /**
+     * METHOD: remove.
+     * This method remove deleted products from personal expiry index.
+     *
+     * @param ownerId Owner id.
+     * @param ids Identities of deleted products.
+     */
+    public void remove(Long ownerId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.opsForZSet().remove(userKey(ownerId), ids.stream().map(String::valueOf).toArray());
+    }
+
+    /**
+     * METHOD: findIds.
+     * This method get ids of personal products expiring between two dates ordered by expiry date.
+     * Personal index is loaded from db on first use.
+     *
+     * @param ownerId Owner id.
+     * @param from First date, inclusive.
+     * @param to Last date, inclusive.
+     * @param loader Loader of personal products from db.
+     * @return List of product ids.
+     */
+    public List<Long> findIds(Long ownerId, LocalDate from, LocalDate to, Supplier<List<ProductEntity>> loader) {
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(builtKey(ownerId)))) {
+            index(loader.get());
+            stringRedisTemplate.opsForValue().set(builtKey(ownerId), "1");
+            logger.info("Expiry index built");
+        }
+        Set<String> ids = stringRedisTemplate.opsForZSet().rangeByScore(userKey(ownerId), from.toEpochDay(), to.toEpochDay());
+        return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+    }
+}
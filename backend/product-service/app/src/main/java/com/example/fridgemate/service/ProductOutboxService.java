@@ -0,0 +1,121 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.config.KafkaTopicConfig;
+import com.example.fridgemate.dto.ProductChangedEventDto;
+import com.example.fridgemate.entity.ProductOutboxEntity;
+import com.example.fridgemate.repository.ProductOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ProductOutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductOutboxService.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+    private static final long RELAY_LOCK_KEY = 7_001_016L;
+    private final ProductOutboxRepository productOutboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    @Autowired
+    public ProductOutboxService(ProductOutboxRepository productOutboxRepository,
+                                KafkaTemplate<String, String> kafkaTemplate,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${product.outbox.batch-size:100}") int batchSize) {
+        this.productOutboxRepository = productOutboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * METHOD: append.
+     * This method write product change event to outbox in transaction of the change itself.
+     * Event is keyed by owner id, so changes of one user made with any token stay ordered in one partition.
+     *
+     * @param ownerId Owner id.
+     * @param operation ADD, UPDATE or DELETE.
+     * @param ids Identities of changed products.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long ownerId, String operation, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        ProductOutboxEntity event = new ProductOutboxEntity();
+        event.setEventKey(String.valueOf(ownerId));
+        event.setCreatedAt(LocalDateTime.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(new ProductChangedEventDto(
+                    ownerId, operation, ids, event.getCreatedAt().format(TIMESTAMP_FORMAT))));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Product event serialization error", exception);
+        }
+        productOutboxRepository.save(event);
+    }
+
+    /**
+     * METHOD: relay.
+     * This method publish batch of outbox events to Kafka and delete them after acknowledgement.
+     * Only one node relays at a time: batch is read under transaction level advisory lock,
+     * other nodes skip the round, so events of one user are never sent out of order by two nodes.
+     * Failed batch stays in outbox and is sent again, delivery is at least once.
+     */
+    @Scheduled(fixedDelayString = "${product.outbox.delay-ms:1000}")
+    public void relay() {
+        Integer sent;
+        do {
+            try {
+                sent = transaction.execute(status -> {
+                    if (!productOutboxRepository.tryAdvisoryXactLock(RELAY_LOCK_KEY)) {
+                        return 0;
+                    }
+                    List<ProductOutboxEntity> events = productOutboxRepository.findBatch(batchSize);
+                    if (events.isEmpty()) {
+                        return 0;
+                    }
+                    CompletableFuture<?>[] acks = events.stream()
+                            .map(event -> kafkaTemplate.send(KafkaTopicConfig.PRODUCT_CHANGED_TOPIC, event.getEventKey(), event.getPayload()))
+                            .toArray(CompletableFuture[]::new);
+                    try {
+                        CompletableFuture.allOf(acks).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    } catch (Exception exception) {
+                        if (exception instanceof InterruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IllegalStateException("Product events are not acknowledged", exception);
+                    }
+                    productOutboxRepository.deleteAllInBatch(events);
+                    return events.size();
+                });
+            } catch (RuntimeException exception) {
+                logger.error("Product outbox relay error: {}", exception.getMessage());
+                return;
+            }
+            if (sent != null && sent > 0) {
+                logger.info("Product events published: Count: {}", sent);
+            }
+        } while (sent != null && sent == batchSize);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.exception.ProductException;
+import com.example.fridgemate.repository.ProductOwnerRepository;
+import com.example.fridgemate.util.JwtUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ProductOwnerService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductOwnerService.class);
+    private static final int BACKFILL_BATCH_SIZE = 100;
+    private final ProductOwnerRepository productOwnerRepository;
+    private final Map<String, Long> ownersBySubject = new ConcurrentHashMap<>();
+    private final Set<String> backfilledTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicLong unresolvedProducts = new AtomicLong();
+    private volatile boolean backfilled;
+
+    @Autowired
+    public ProductOwnerService(ProductOwnerRepository productOwnerRepository,
+                               MeterRegistry meterRegistry) {
+        this.productOwnerRepository = productOwnerRepository;
+        Gauge.builder("product.owner.unresolved", unresolvedProducts, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * METHOD: resolve.
+     * This method get numeric owner id of token from JWT subject.
+     * Owner ids are cached by subject, so all tokens of one user share one entry.
+     * Until owner backfill is completed, first resolve of token also backfills owner id of its old products.
+     *
+     * @param token Token.
+     * @return Owner id or ProductException.
+     */
+    public Long resolve(String token) {
+        String subject = subject(token);
+        Long ownerId = ownersBySubject.get(subject);
+        if (ownerId == null) {
+            ownerId = productOwnerRepository.upsertReturningId(subject);
+            ownersBySubject.putIfAbsent(subject, ownerId);
+        }
+        if (!backfilled && backfilledTokens.add(token)) {
+            int updated = productOwnerRepository.backfillProducts(token, ownerId);
+            if (updated > 0) {
+                logger.info("Owner {} backfilled: Count: {}", ownerId, updated);
+            }
+        }
+        return ownerId;
+    }
+
+    /**
+     * METHOD: subject.
+     * This method get subject of token.
+     *
+     * @param token Token.
+     * @return Subject or ProductException.
+     */
+    private String subject(String token) {
+        String subject;
+        try {
+            subject = JwtUtil.extractUsername(token);
+        } catch (RuntimeException exception) {
+            logger.error("Incorrect token");
+            throw new ProductException("Incorrect token.");
+        }
+        if (subject == null || subject.isBlank()) {
+            logger.error("Token without subject");
+            throw new ProductException("Incorrect token.");
+        }
+        return subject;
+    }
+
+    /**
+     * METHOD: backfillOwners.
+     * This method set owner id of old products in small batches of tokens.
+     * Each batch is short update, so migration does not lock products table.
+     * Products which token can not be resolved stay hidden from owner queries,
+     * so they are counted, reported and retried until none is left.
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelay = 600_000)
+    public void backfillOwners() {
+        if (backfilled && unresolvedProducts.get() == 0) {
+            return;
+        }
+        String afterToken = "";
+        int count = 0;
+        int failed = 0;
+        List<String> tokens;
+        do {
+            tokens = productOwnerRepository.findTokensWithoutOwner(afterToken, BACKFILL_BATCH_SIZE);
+            for (String token : tokens) {
+                try {
+                    productOwnerRepository.backfillProducts(token, resolve(token));
+                    count++;
+                } catch (RuntimeException exception) {
+                    failed++;
+                    logger.error("Owner backfill skipped token {}: {}", JwtUtil.hashToken(token), exception.getMessage());
+                }
+            }
+            if (!tokens.isEmpty()) {
+                afterToken = tokens.get(tokens.size() - 1);
+            }
+        } while (tokens.size() == BACKFILL_BATCH_SIZE);
+        backfilled = true;
+        backfilledTokens.clear();
+        long unresolved = productOwnerRepository.countProductsWithoutOwner();
+        unresolvedProducts.set(unresolved);
+        if (unresolved > 0) {
+            logger.error("Owner backfill incomplete: Tokens: {}, Failed tokens: {}, Products without owner: {}",
+                    count, failed, unresolved);
+            return;
+        }
+        logger.info("Owner backfill completed: Tokens: {}", count);
+    }
+}
@@ -1,91 +1,278 @@
 package com.example.fridgemate.service;
 
+import com.example.fridgemate.dto.ProductBatchResultDto;
+import com.example.fridgemate.dto.ProductChangesDto;
+import com.example.fridgemate.dto.ProductConsumeDto;
 import com.example.fridgemate.dto.ProductDto;
+import com.example.fridgemate.dto.ProductLookupDto;
+import com.example.fridgemate.dto.ProductPageDto;
+import com.example.fridgemate.dto.ProductSummaryDto;
 import com.example.fridgemate.entity.ProductEntity;
 import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.exception.ProductAccessException;
 import com.example.fridgemate.exception.ProductException;
 import com.example.fridgemate.repository.ProductRepository;
-import com.example.fridgemate.repository.ProductTypeRepository;
+import com.example.fridgemate.repository.RemovedProduct;
+import com.example.fridgemate.service.ProductAdmissionService.Priority;
 import com.example.fridgemate.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_PAGE_LIMIT = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_LOOKUP_SIZE = 500;
+    private static final int MAX_EXPIRING_DAYS = 365;
+    private static final int MAX_SEARCH_LIMIT = 50;
     private final ProductRepository productRepository;
-    private final ProductTypeRepository productTypeRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductTypeCatalog productTypeCatalog;
+    private final ProductCacheService productCacheService;
+    private final ProductExpiryIndexService productExpiryIndexService;
+    private final ProductSummaryService productSummaryService;
+    private final ProductChangeLogService productChangeLogService;
+    private final ProductOutboxService productOutboxService;
+    private final ProductOwnerService productOwnerService;
+    private final ProductAdmissionService productAdmissionService;
     private final Executor executor;
+    private final Executor writeExecutor;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String typesRefreshKey;
 
     @Autowired
     public ProductService(ProductRepository productRepository,
-                          ProductTypeRepository productTypeRepository,
-                          RedisTemplate<String, Object> redisTemplate,
-                          @Qualifier("productExecutor") Executor executor) {
+                          ProductTypeCatalog productTypeCatalog,
+                          ProductCacheService productCacheService,
+                          ProductExpiryIndexService productExpiryIndexService,
+                          ProductSummaryService productSummaryService,
+                          ProductChangeLogService productChangeLogService,
+                          ProductOutboxService productOutboxService,
+                          ProductOwnerService productOwnerService,
+                          ProductAdmissionService productAdmissionService,
+                          @Qualifier("productExecutor") Executor executor,
+                          @Qualifier("productWriteExecutor") Executor writeExecutor,
+                          EntityManager entityManager,
+                          ObjectMapper objectMapper,
+                          Validator validator,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${product.types.refresh-key:}") String typesRefreshKey) {
         this.productRepository = productRepository;
-        this.productTypeRepository = productTypeRepository;
-        this.redisTemplate = redisTemplate;
+        this.productTypeCatalog = productTypeCatalog;
+        this.productCacheService = productCacheService;
+        this.productExpiryIndexService = productExpiryIndexService;
+        this.productSummaryService = productSummaryService;
+        this.productChangeLogService = productChangeLogService;
+        this.productOutboxService = productOutboxService;
+        this.productOwnerService = productOwnerService;
+        this.productAdmissionService = productAdmissionService;
         this.executor = executor;
+        this.writeExecutor = writeExecutor;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.typesRefreshKey = typesRefreshKey;
     }
 
     /**
      * METHOD: addProduct.
-     * This method add new product to personal db.
+     * This method add new product to personal db together with outbox event.
+     * Writes run on their own executor, so they never wait behind queued reads.
      *
      * @param token Token.
      * @param dto Product's data.
      * @return {@link ProductEntity} or ProductException.
      */
-    @Transactional
     public CompletableFuture<ProductEntity> addProduct(String token, ProductDto dto) {
+        productAdmissionService.admit(Priority.WRITE);
         return CompletableFuture.supplyAsync(() -> {
-            ProductTypeEntity type = productTypeRepository.findById(Long.parseLong(dto.getTypeId())).orElseThrow(() -> new ProductException("Invalid type ID"));
-            int quantity = Integer.parseInt(dto.getQuantity());
-            BigDecimal amount = new BigDecimal(dto.getAmount());
-            LocalDate expiryDate, addedDate;
-            if (Objects.equals(dto.getAddedDate(), "")) {
-                addedDate = LocalDate.now();
-            } else {
-                addedDate = LocalDate.parse(dto.getAddedDate());
-            }
-            if (Objects.equals(dto.getExpiryDate(), "")) {
-                expiryDate = addedDate.plusDays(type.getShelfDays());
-            } else {
-                expiryDate = LocalDate.parse(dto.getExpiryDate());
-            }
-            if (!isValidProduct(quantity, amount, expiryDate) || !isToken(token)) {
+            ProductTypeEntity type = productTypeCatalog.findById(Long.parseLong(dto.getTypeId())).orElseThrow(() -> new ProductException("Invalid type ID"));
+            if (!isToken(token)) {
                 logger.error("Incorrect product data");
                 throw new ProductException("Incorrect product data.");
             }
-            ProductEntity product = new ProductEntity();
-            product.setToken(token);
-            product.setName(dto.getName());
-            product.setAddedDate(addedDate);
-            product.setAmount(amount);
-            product.setExpiryDate(expiryDate);
-            product.setQuantity(quantity);
-            product.setType(type);
-            ProductEntity savedProduct = productRepository.save(product);
+            Long ownerId = productOwnerService.resolve(token);
+            ProductEntity newProduct = toProductEntity(token, ownerId, dto, type);
+            ProductEntity savedProduct = transaction.execute(status -> {
+                ProductEntity product = productRepository.save(newProduct);
+                productOutboxService.append(ownerId, ProductChangeLogService.ADD, List.of(product.getId()));
+                return product;
+            });
+            afterCommit("change log", () -> productChangeLogService.recordAdded(ownerId, List.of(savedProduct)));
+            afterCommit("cache", () -> productCacheService.evictProducts(ownerId, List.of(savedProduct.getId())));
+            afterCommit("expiry index", () -> productExpiryIndexService.index(List.of(savedProduct)));
+            afterCommit("summary", () -> productSummaryService.add(List.of(savedProduct)));
             logger.info("Product added: Id: {}", savedProduct.getId());
             return savedProduct;
-        }, executor);
+        }, writeExecutor);
+    }
+
+    /**
+     * METHOD: addProducts.
+     * This method add list of new products to personal db in one batch.
+     * Each product is validated on its own, so one invalid product does not reject whole batch.
+     * Product types are resolved from catalog, invalid products are reported by index.
+     *
+     * @param token Token.
+     * @param dtos List of product's data.
+     * @return {@link ProductBatchResultDto} or ProductException.
+     */
+    public CompletableFuture<ProductBatchResultDto> addProducts(String token, List<ProductDto> dtos) {
+        productAdmissionService.admit(Priority.WRITE);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            if (dtos.isEmpty() || dtos.size() > MAX_BATCH_SIZE) {
+                logger.error("Incorrect batch size: {}", dtos.size());
+                throw new ProductException("Batch size should be between 1 and " + MAX_BATCH_SIZE + ".");
+            }
+            Long ownerId = productOwnerService.resolve(token);
+            List<ProductEntity> products = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            Map<Integer, String> errors = new LinkedHashMap<>();
+            for (int index = 0; index < dtos.size(); index++) {
+                ProductDto dto = dtos.get(index);
+                if (dto == null) {
+                    errors.put(index, "Incorrect product data.");
+                    continue;
+                }
+                Set<ConstraintViolation<ProductDto>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    errors.put(index, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+                try {
+                    ProductTypeEntity type = productTypeCatalog.findById(Long.parseLong(dto.getTypeId()))
+                            .orElseThrow(() -> new ProductException("Invalid type ID"));
+                    products.add(toProductEntity(token, ownerId, dto, type));
+                    indexes.add(index);
+                } catch (ProductException exception) {
+                    errors.put(index, exception.getMessage());
+                } catch (RuntimeException exception) {
+                    errors.put(index, "Incorrect product data.");
+                }
+            }
+            Map<Integer, Long> created = new LinkedHashMap<>();
+            List<ProductEntity> savedProducts = transaction.execute(status -> {
+                List<ProductEntity> saved = productRepository.saveAll(products);
+                productOutboxService.append(ownerId, ProductChangeLogService.ADD, saved.stream().map(ProductEntity::getId).toList());
+                return saved;
+            });
+            for (int i = 0; i < savedProducts.size(); i++) {
+                created.put(indexes.get(i), savedProducts.get(i).getId());
+            }
+            if (!created.isEmpty()) {
+                afterCommit("change log", () -> productChangeLogService.recordAdded(ownerId, savedProducts));
+                afterCommit("cache", () -> productCacheService.evictProducts(ownerId, created.values()));
+                afterCommit("expiry index", () -> productExpiryIndexService.index(savedProducts));
+                afterCommit("summary", () -> productSummaryService.add(savedProducts));
+            }
+            logger.info("Products added in batch: Count: {}, Errors: {}", created.size(), errors.size());
+            return new ProductBatchResultDto(created, errors);
+        }, writeExecutor);
+    }
+
+    /**
+     * METHOD: afterCommit.
+     * This method run side effect of committed change and only log its failure,
+     * so saved change is not reported as failed and next side effects still run.
+     * Change log goes before cache eviction: fridge version is bumped first,
+     * so list loaded before the change is not cached again after eviction.
+     *
+     * @param name Name of side effect.
+     * @param action Side effect.
+     */
+    private void afterCommit(String name, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException exception) {
+            logger.error("Product {} update error after commit: {}", name, exception.getMessage());
+        }
+    }
+
+    /**
+     * METHOD: toProductEntity.
+     * This method parse and check product's data.
+     *
+     * @param token Token.
+     * @param ownerId Owner id of token.
+     * @param dto Product's data.
+     * @param type Product type.
+     * @return New {@link ProductEntity} or ProductException.
+     */
+    static ProductEntity toProductEntity(String token, Long ownerId, ProductDto dto, ProductTypeEntity type) {
+        int quantity = Integer.parseInt(dto.getQuantity());
+        BigDecimal amount = new BigDecimal(dto.getAmount());
+        LocalDate expiryDate, addedDate;
+        if (Objects.equals(dto.getAddedDate(), "")) {
+            addedDate = LocalDate.now();
+        } else {
+            addedDate = LocalDate.parse(dto.getAddedDate());
+        }
+        if (Objects.equals(dto.getExpiryDate(), "")) {
+            expiryDate = addedDate.plusDays(type.getShelfDays());
+        } else {
+            expiryDate = LocalDate.parse(dto.getExpiryDate());
+        }
+        if (!isValidProduct(quantity, amount, expiryDate)) {
+            logger.error("Incorrect product data");
+            throw new ProductException("Incorrect product data.");
+        }
+        ProductEntity product = new ProductEntity();
+        product.setToken(token);
+        product.setOwnerId(ownerId);
+        product.setName(dto.getName());
+        product.setAddedDate(addedDate);
+        product.setAmount(amount);
+        product.setExpiryDate(expiryDate);
+        product.setQuantity(quantity);
+        product.setType(type);
+        return product;
     }
 
     /**
@@ -104,7 +291,7 @@ public class ProductService {
      * @param product Product.
      * @return true if product is expired else false.
      */
-    private boolean isProductExpired(ProductEntity product) {
+    static boolean isProductExpired(ProductEntity product) {
         return product.getExpiryDate().isBefore(LocalDate.now());
     }
 
@@ -115,7 +302,7 @@ public class ProductService {
      * @param product Product.
      * @return true if product is missing else false.
      */
-    private boolean isProductMissing(ProductEntity product) {
+    static boolean isProductMissing(ProductEntity product) {
         return (product.getExpiryDate().isAfter(LocalDate.now())
                 && ChronoUnit.DAYS.between(LocalDate.now(), product.getExpiryDate()) <= 1);
     }
@@ -128,10 +315,12 @@ public class ProductService {
      * @return List of {@link ProductEntity}.
      */
     public CompletableFuture<List<ProductEntity>> getExpiredProducts(String token) {
+        productAdmissionService.admit(Priority.READ);
         return CompletableFuture.supplyAsync(() -> {
-            List<ProductEntity> products = productRepository.findAllByToken(token).stream()
-                    .filter(this::isProductExpired)
-                    .toList();
+            Long ownerId = productOwnerService.resolve(token);
+            List<ProductEntity> products = productCacheService.findFridge(ownerId)
+                    .map(fridge -> fridge.stream().filter(ProductService::isProductExpired).toList())
+                    .orElseGet(() -> productRepository.findAllByOwnerIdExpiringBefore(ownerId, LocalDate.now()));
             logger.info("Retrieved expired products: Count: {}", products.size());
             return products;
         }, executor);
@@ -145,15 +334,53 @@ public class ProductService {
      * @return List of {@link ProductEntity}.
      */
     public CompletableFuture<List<ProductEntity>> getMissingProducts(String token) {
+        productAdmissionService.admit(Priority.READ);
         return CompletableFuture.supplyAsync(() -> {
-            List<ProductEntity> products = productRepository.findAllByToken(token).stream()
-                    .filter(this::isProductMissing)
-                    .toList();
+            LocalDate today = LocalDate.now();
+            Long ownerId = productOwnerService.resolve(token);
+            List<ProductEntity> products = productCacheService.findFridge(ownerId)
+                    .map(fridge -> fridge.stream().filter(ProductService::isProductMissing).toList())
+                    .orElseGet(() -> productRepository.findAllByOwnerIdExpiringBetween(ownerId, today, today.plusDays(1)));
             logger.info("Retrieved missing products: Count: {}", products.size());
             return products;
         }, executor);
     }
 
+    /**
+     * METHOD: getExpiringProducts.
+     * This method get personal products expiring within given count of days from expiry index.
+     *
+     * @param token Token.
+     * @param days Count of days from today.
+     * @return List of {@link ProductEntity} ordered by expiry date or ProductException.
+     */
+    public CompletableFuture<List<ProductEntity>> getExpiringProducts(String token, int days) {
+        productAdmissionService.admit(Priority.BULK_READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            if (days < 0 || days > MAX_EXPIRING_DAYS) {
+                logger.error("Incorrect count of days: {}", days);
+                throw new ProductException("Count of days should be between 0 and " + MAX_EXPIRING_DAYS + ".");
+            }
+            Long ownerId = productOwnerService.resolve(token);
+            LocalDate today = LocalDate.now();
+            List<Long> ids = productExpiryIndexService.findIds(ownerId, today, today.plusDays(days),
+                    () -> productCacheService.getFridge(ownerId, () -> productRepository.findAllByOwnerId(ownerId)));
+            Map<Long, ProductEntity> found = productCacheService.getProducts(ids, productRepository::findAllByIdIn);
+            List<Long> stale = ids.stream().filter(id -> !found.containsKey(id)).toList();
+            productExpiryIndexService.remove(ownerId, stale);
+            List<ProductEntity> products = ids.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            logger.info("Retrieved expiring products: Count: {}", products.size());
+            return products;
+        }, executor);
+    }
+
     /**
      * METHOD: isValidProduct.
      * This method check validation of product.
@@ -163,7 +390,7 @@ public class ProductService {
      * @param expiryDate Product expiry date.
      * @return true if product is valid else false.
      */
-    private boolean isValidProduct(int quantity, BigDecimal amount, LocalDate expiryDate) {
+    private static boolean isValidProduct(int quantity, BigDecimal amount, LocalDate expiryDate) {
         return quantity > 0
                 && expiryDate.isAfter(LocalDate.now())
                 && amount.compareTo(BigDecimal.ZERO) > 0;
@@ -177,17 +404,150 @@ public class ProductService {
      * @return List of {@link ProductEntity}.
      */
     public CompletableFuture<List<ProductEntity>> getAllProducts(String token) {
+        productAdmissionService.admit(Priority.BULK_READ);
         return CompletableFuture.supplyAsync(() -> {
             if (!isToken(token)) {
                 logger.error("Incorrect token");
                 throw new ProductException("Incorrect token.");
             }
-            List<ProductEntity> products = productRepository.findAllByToken(token);
+            Long ownerId = productOwnerService.resolve(token);
+            List<ProductEntity> products = productCacheService.getFridge(ownerId, () -> productRepository.findAllByOwnerId(ownerId));
             logger.info("Retrieved all products: Count: {}", products.size());
             return products;
         }, executor);
     }
 
+    /**
+     * METHOD: getProductsVersion.
+     * This method get current version of personal fridge.
+     *
+     * @param token Token.
+     * @return Version or ProductException.
+     */
+    public CompletableFuture<Long> getProductsVersion(String token) {
+        productAdmissionService.admit(Priority.READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            return productChangeLogService.getVersion(productOwnerService.resolve(token));
+        }, executor);
+    }
+
+    /**
+     * METHOD: getProductsChanges.
+     * This method get personal changes after version known by client.
+     *
+     * @param token Token.
+     * @param since Version known by client.
+     * @return {@link ProductChangesDto} or ProductException.
+     */
+    public CompletableFuture<ProductChangesDto> getProductsChanges(String token, long since) {
+        productAdmissionService.admit(Priority.READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            ProductChangesDto changes = productChangeLogService.getChanges(productOwnerService.resolve(token), since);
+            logger.info("Retrieved products changes: Count: {}, Resync: {}", changes.getChanges().size(), changes.isResync());
+            return changes;
+        }, executor);
+    }
+
+    /**
+     * METHOD: getProductsSummary.
+     * This method get personal summary of fridge.
+     *
+     * @param token Token.
+     * @return {@link ProductSummaryDto} or ProductException.
+     */
+    public CompletableFuture<ProductSummaryDto> getProductsSummary(String token) {
+        productAdmissionService.admit(Priority.READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            ProductSummaryDto summary = productSummaryService.getSummary(productOwnerService.resolve(token));
+            logger.info("Retrieved products summary: Count: {}", summary.getCount());
+            return summary;
+        }, executor);
+    }
+
+    /**
+     * METHOD: getProductsPage.
+     * This method get one page of personal products from db ordered by id.
+     *
+     * @param token Token.
+     * @param afterId Identity of the last product of previous page.
+     * @param limit Maximum count of products in page.
+     * @return {@link ProductPageDto} or ProductException.
+     */
+    public CompletableFuture<ProductPageDto> getProductsPage(String token, Long afterId, int limit) {
+        productAdmissionService.admit(Priority.BULK_READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+                logger.error("Incorrect page limit: {}", limit);
+                throw new ProductException("Page limit should be between 1 and " + MAX_PAGE_LIMIT + ".");
+            }
+            List<ProductEntity> products = productRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                    productOwnerService.resolve(token), afterId, Limit.of(limit));
+            Long nextAfterId = products.size() == limit ? products.get(products.size() - 1).getId() : null;
+            logger.info("Retrieved products page: Count: {}", products.size());
+            return new ProductPageDto(products, nextAfterId);
+        }, executor);
+    }
+
+    /**
+     * METHOD: streamAllProducts.
+     * This method stream all personal products from db as NDJSON.
+     *
+     * @param token Token.
+     * @return {@link StreamingResponseBody} or ProductException.
+     */
+    public StreamingResponseBody streamAllProducts(String token) {
+        productAdmissionService.admit(Priority.BULK_READ);
+        if (!isToken(token)) {
+            logger.error("Incorrect token");
+            throw new ProductException("Incorrect token.");
+        }
+        Long ownerId = productOwnerService.resolve(token);
+        return output -> readOnlyTransaction.executeWithoutResult(status -> writeProducts(ownerId, output));
+    }
+
+    /**
+     * METHOD: writeProducts.
+     * This method write personal products to output one JSON line per product.
+     * Every written product is detached, so persistence context does not grow with fridge.
+     *
+     * @param ownerId Owner id of token.
+     * @param output Response output.
+     */
+    private void writeProducts(Long ownerId, OutputStream output) {
+        int count = 0;
+        try (Stream<ProductEntity> products = productRepository.streamAllByOwnerId(ownerId)) {
+            Iterator<ProductEntity> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductEntity product = iterator.next();
+                output.write(objectMapper.writeValueAsBytes(product));
+                output.write('\n');
+                entityManager.detach(product);
+                count++;
+            }
+            output.flush();
+        } catch (IOException exception) {
+            logger.error("Streaming products error");
+            throw new UncheckedIOException(exception);
+        }
+        logger.info("Streamed all products: Count: {}", count);
+    }
+
     /**
      * METHOD: getAllProductTypesByUser.
      * This method get all personal product types from db.
@@ -196,13 +556,19 @@ public class ProductService {
      * @return List of {@link ProductTypeEntity}.
      */
     public CompletableFuture<List<ProductTypeEntity>> getAllProductTypesByUser(String token) {
+        productAdmissionService.admit(Priority.BULK_READ);
         return CompletableFuture.supplyAsync(() -> {
             if (!isToken(token)) {
                 logger.error("Incorrect token");
                 throw new ProductException("Incorrect token.");
             }
-            List<ProductEntity> products = productRepository.findAllByToken(token);
-            List<ProductTypeEntity> types = products.stream().map(ProductEntity::getType).toList();
+            Long ownerId = productOwnerService.resolve(token);
+            List<ProductTypeEntity> types = productCacheService.findFridge(ownerId)
+                    .map(fridge -> fridge.stream()
+                            .map(ProductEntity::getType)
+                            .collect(Collectors.toMap(ProductTypeEntity::getId, type -> type, (first, second) -> first, LinkedHashMap::new))
+                            .values().stream().toList())
+                    .orElseGet(() -> productRepository.findDistinctTypesByOwnerId(ownerId));
             logger.info("Retrieved all personal product types: Count: {}", types.size());
             return types;
         }, executor);
@@ -216,22 +582,39 @@ public class ProductService {
      * @return An optional {@link ProductEntity}.
      */
     public CompletableFuture<Optional<ProductEntity>> findProductById(Long id) {
+        productAdmissionService.admit(Priority.READ);
         return CompletableFuture.supplyAsync(() -> {
-            ProductEntity cachedProduct = null;
-            Object cachedProductObj = redisTemplate.opsForValue().get("product: " + id);
-            if (cachedProductObj instanceof ProductEntity) {
-                cachedProduct = (ProductEntity) cachedProductObj;
-            }
-            if (cachedProduct == null) {
-                Optional<ProductEntity> gotProduct = productRepository.findById(id);
-                gotProduct.ifPresent(product -> {
-                    redisTemplate.opsForValue().set("product: " + id, product, 24, TimeUnit.HOURS);
-                    logger.info("Product {} found", product.getId());
-                });
-                return gotProduct;
+            Optional<ProductEntity> gotProduct = productCacheService.getProduct(id, productRepository::findById);
+            gotProduct.ifPresent(product -> logger.info("Product {} found", product.getId()));
+            return gotProduct;
+        }, executor);
+    }
+
+    /**
+     * METHOD: findProductsByIds.
+     * This method find and get products by list of ids.
+     *
+     * @param ids Identities of products.
+     * @return {@link ProductLookupDto} with products in requested order and missing ids.
+     */
+    public CompletableFuture<ProductLookupDto> findProductsByIds(List<Long> ids) {
+        productAdmissionService.admit(Priority.BULK_READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (ids.isEmpty() || ids.size() > MAX_LOOKUP_SIZE) {
+                logger.error("Incorrect lookup size: {}", ids.size());
+                throw new ProductException("Count of ids should be between 1 and " + MAX_LOOKUP_SIZE + ".");
             }
-            logger.info("Product {} found", cachedProduct.getId());
-            return Optional.of(cachedProduct);
+            Map<Long, ProductEntity> found = productCacheService.getProducts(ids, productRepository::findAllByIdIn);
+            List<ProductEntity> products = ids.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            List<Long> missing = ids.stream()
+                    .filter(id -> !found.containsKey(id))
+                    .distinct()
+                    .toList();
+            logger.info("Retrieved products by ids: Count: {}, Missing: {}", products.size(), missing.size());
+            return new ProductLookupDto(products, missing);
         }, executor);
     }
 
@@ -243,11 +626,78 @@ public class ProductService {
      * @return A message confirming that product by id have been deleted.
      */
     public CompletableFuture<Void> deleteProductById(Long id) {
+        productAdmissionService.admit(Priority.WRITE);
         return CompletableFuture.runAsync(() -> {
-            productRepository.deleteById(id);
+            Optional<RemovedProduct> removed = transaction.execute(status -> {
+                Optional<RemovedProduct> product = productRepository.deleteByIdReturning(id);
+                product.ifPresent(found -> productOutboxService.append(found.getOwnerId(), ProductChangeLogService.DELETE, List.of(id)));
+                return product;
+            });
+            removed.ifPresent(product -> {
+                afterCommit("change log", () -> productChangeLogService.recordDeleted(product.getOwnerId(), List.of(id)));
+                afterCommit("cache", () -> productCacheService.evictProducts(product.getOwnerId(), List.of(id)));
+                afterCommit("expiry index", () -> productExpiryIndexService.remove(product.getOwnerId(), List.of(id)));
+                afterCommit("summary", () -> productSummaryService.remove(List.of(product)));
+            });
             logger.info("Deleted product by ID: {}", id);
-            redisTemplate.delete("product: " + id);
-        }, executor);
+        }, writeExecutor);
+    }
+
+    /**
+     * Result of consume with deleted row when product was used up.
+     */
+    private record Consumption(ProductConsumeDto result, RemovedProduct removed) {
+    }
+
+    /**
+     * METHOD: consumeProduct.
+     * This method decrease quantity of personal product with one conditional update
+     * and delete product when nothing is left.
+     *
+     * @param id Identity of product.
+     * @param token Token.
+     * @param quantity Consumed quantity.
+     * @return {@link ProductConsumeDto} or ProductException.
+     */
+    public CompletableFuture<ProductConsumeDto> consumeProduct(Long id, String token, int quantity) {
+        productAdmissionService.admit(Priority.WRITE);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            if (quantity <= 0) {
+                logger.error("Incorrect consumed quantity: {}", quantity);
+                throw new ProductException("Consumed quantity should be positive.");
+            }
+            Long ownerId = productOwnerService.resolve(token);
+            Consumption consumption = transaction.execute(status -> {
+                Optional<Integer> remaining = productRepository.consumeReturningQuantity(id, ownerId, quantity);
+                if (remaining.isEmpty()) {
+                    return null;
+                }
+                RemovedProduct removed = remaining.get() == 0
+                        ? productRepository.deleteConsumedReturning(id).orElse(null)
+                        : null;
+                productOutboxService.append(ownerId, removed != null ? ProductChangeLogService.DELETE : ProductChangeLogService.UPDATE, List.of(id));
+                return new Consumption(new ProductConsumeDto(id, remaining.get(), removed != null), removed);
+            });
+            if (consumption == null) {
+                logger.error("Product {} not found or not enough quantity", id);
+                throw new ProductException("Product not found or not enough quantity.");
+            }
+            if (consumption.removed() != null) {
+                afterCommit("change log", () -> productChangeLogService.recordDeleted(ownerId, List.of(id)));
+                afterCommit("cache", () -> productCacheService.evictProducts(ownerId, List.of(id)));
+                afterCommit("expiry index", () -> productExpiryIndexService.remove(ownerId, List.of(id)));
+                afterCommit("summary", () -> productSummaryService.remove(List.of(consumption.removed())));
+            } else {
+                afterCommit("change log", () -> productChangeLogService.recordUpdated(ownerId, id, consumption.result().getQuantity()));
+                afterCommit("cache", () -> productCacheService.evictProducts(ownerId, List.of(id)));
+            }
+            logger.info("Consumed product {}: Remaining: {}", id, consumption.result().getQuantity());
+            return consumption.result();
+        }, writeExecutor);
     }
 
     /**
@@ -258,17 +708,29 @@ public class ProductService {
      * @return A message confirming that all products have been deleted or ProductException.
      */
     public CompletableFuture<Void> deleteAllProducts(String token) {
-        return getAllProducts(token).thenAccept(products -> {
+        productAdmissionService.admit(Priority.WRITE);
+        return CompletableFuture.runAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
+            }
+            Long ownerId = productOwnerService.resolve(token);
+            List<RemovedProduct> products = transaction.execute(status -> {
+                List<RemovedProduct> removed = productRepository.deleteAllByOwnerIdReturning(ownerId);
+                productOutboxService.append(ownerId, ProductChangeLogService.DELETE, removed.stream().map(RemovedProduct::getId).toList());
+                return removed;
+            });
             if (products.isEmpty()) {
                 logger.error("No products for delete");
                 throw new ProductException("No products.");
             }
-            productRepository.deleteAll();
-            logger.info("Deleted all products");
-            products.forEach(product -> {
-                redisTemplate.delete("product: " + product.getId());
-            });
-        }).exceptionally(exception -> {
+            logger.info("Deleted all products: Count: {}", products.size());
+            List<Long> ids = products.stream().map(RemovedProduct::getId).toList();
+            afterCommit("change log", () -> productChangeLogService.recordDeleted(ownerId, ids));
+            afterCommit("cache", () -> productCacheService.evictProducts(ownerId, ids));
+            afterCommit("expiry index", () -> productExpiryIndexService.remove(ownerId, ids));
+            afterCommit("summary", () -> productSummaryService.clear(ownerId));
+        }, writeExecutor).exceptionally(exception -> {
             logger.error("Deleted products error");
             throw new ProductException("Deleted products error: " + exception.getMessage());
         });
@@ -282,16 +744,25 @@ public class ProductService {
      * @return A message confirming that all expired products have been deleted or ProductException.
      */
     public CompletableFuture<Void> deleteExpiredProduct(String token) {
-        return getExpiredProducts(token).thenAccept(products -> {
+        productAdmissionService.admit(Priority.WRITE);
+        return CompletableFuture.runAsync(() -> {
+            Long ownerId = productOwnerService.resolve(token);
+            List<RemovedProduct> products = transaction.execute(status -> {
+                List<RemovedProduct> removed = productRepository.deleteAllByOwnerIdExpiringBeforeReturning(ownerId, LocalDate.now());
+                productOutboxService.append(ownerId, ProductChangeLogService.DELETE, removed.stream().map(RemovedProduct::getId).toList());
+                return removed;
+            });
             if (products.isEmpty()) {
                 logger.error("No expired products for delete");
                 throw new ProductException("No expired products.");
             }
-            productRepository.deleteAllInBatch(products);
-            products.forEach(product -> {
-                redisTemplate.delete("product: " + product.getId());
-            });
-        }).exceptionally(exception -> {
+            logger.info("Deleted expired products: Count: {}", products.size());
+            List<Long> ids = products.stream().map(RemovedProduct::getId).toList();
+            afterCommit("change log", () -> productChangeLogService.recordDeleted(ownerId, ids));
+            afterCommit("cache", () -> productCacheService.evictProducts(ownerId, ids));
+            afterCommit("expiry index", () -> productExpiryIndexService.remove(ownerId, ids));
+            afterCommit("summary", () -> productSummaryService.remove(products));
+        }, writeExecutor).exceptionally(exception -> {
             logger.error("Deleted expired products error");
             throw new ProductException("Deleted expired products error: " + exception.getMessage());
         });
@@ -306,21 +777,20 @@ public class ProductService {
      * @return List of {@link ProductEntity} or ProductException.
      */
     public CompletableFuture<Optional<List<ProductEntity>>> findProductByType(Long typeId, String token) {
+        productAdmissionService.admit(Priority.READ);
         return CompletableFuture.supplyAsync(() -> {
             if (!isToken(token)) {
                 logger.error("Incorrect token");
                 throw new ProductException("Incorrect token.");
             }
-            Optional<ProductTypeEntity> type = productTypeRepository.findById(typeId);
+            Optional<ProductTypeEntity> type = productTypeCatalog.findById(typeId);
             if (type.isEmpty()) {
                 logger.error("Incorrect product type");
                 throw new ProductException("Incorrect product type.");
             }
-            Optional<List<ProductEntity>> gotProducts = productRepository.findAllByTypeAndToken(type.get(), token);
+            Optional<List<ProductEntity>> gotProducts = productRepository.findAllByTypeAndOwnerId(type.get(), productOwnerService.resolve(token));
             gotProducts.ifPresent(products -> {
-                products.forEach(product -> {
-                    redisTemplate.opsForValue().set("product: " + product.getId(), product, 24, TimeUnit.HOURS);
-                });
+                productCacheService.cacheProducts(products);
                 logger.info("Retrieved all products: Count: {}", products.size());
             });
             return gotProducts;
@@ -334,8 +804,9 @@ public class ProductService {
      * @return List of {@link ProductTypeEntity}.
      */
     public CompletableFuture<List<ProductTypeEntity>> getAllProductTypes() {
+        productAdmissionService.admit(Priority.READ);
         return CompletableFuture.supplyAsync(() -> {
-            List<ProductTypeEntity> types = productTypeRepository.findAll();
+            List<ProductTypeEntity> types = productTypeCatalog.findAll();
             logger.info("Retrieved all product types: Count: {}", types.size());
             return types;
         }, executor);
@@ -349,22 +820,79 @@ public class ProductService {
      * @return An optional {@link ProductTypeEntity}.
      */
     public CompletableFuture<Optional<ProductTypeEntity>> findProductTypeByName(String name) {
+        productAdmissionService.admit(Priority.READ);
         return CompletableFuture.supplyAsync(() -> {
-            ProductTypeEntity cachedType = null;
-            Object cachedTypeObj = redisTemplate.opsForValue().get("type: " + name);
-            if (cachedTypeObj instanceof ProductTypeEntity) {
-                cachedType = (ProductTypeEntity) cachedTypeObj;
+            Optional<ProductTypeEntity> gotType = productTypeCatalog.findByName(name);
+            gotType.ifPresent(type -> logger.info("Product type {} found", type.getId()));
+            return gotType;
+        }, executor);
+    }
+
+    /**
+     * METHOD: searchProductTypes.
+     * This method get product types which names start with prefix.
+     *
+     * @param prefix Beginning of type name.
+     * @param limit Maximum count of types.
+     * @return List of {@link ProductTypeEntity} or ProductException.
+     */
+    public CompletableFuture<List<ProductTypeEntity>> searchProductTypes(String prefix, int limit) {
+        productAdmissionService.admit(Priority.READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+                logger.error("Incorrect search limit: {}", limit);
+                throw new ProductException("Search limit should be between 1 and " + MAX_SEARCH_LIMIT + ".");
+            }
+            List<ProductTypeEntity> types = productTypeCatalog.findByPrefix(prefix, limit);
+            logger.info("Found product types by prefix: Count: {}", types.size());
+            return types;
+        }, executor);
+    }
+
+    /**
+     * METHOD: searchProducts.
+     * This method find ids of personal products by similar name using trigram index, then load them with types in one query.
+     *
+     * @param token Token.
+     * @param query Part of product name.
+     * @param limit Maximum count of products.
+     * @return List of {@link ProductEntity} ordered by similarity or ProductException.
+     */
+    public CompletableFuture<List<ProductEntity>> searchProducts(String token, String query, int limit) {
+        productAdmissionService.admit(Priority.BULK_READ);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isToken(token)) {
+                logger.error("Incorrect token");
+                throw new ProductException("Incorrect token.");
             }
-            if (cachedType == null) {
-                Optional<ProductTypeEntity> gotType = productTypeRepository.findByName(name);
-                gotType.ifPresent(type -> {
-                    redisTemplate.opsForValue().set("type: " + name, type, 24, TimeUnit.HOURS);
-                    logger.info("Product type {} found", type.getId());
-                });
-                return gotType;
+            if (query.isBlank() || limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+                logger.error("Incorrect search query");
+                throw new ProductException("Search query should be not empty and limit between 1 and " + MAX_SEARCH_LIMIT + ".");
             }
-            logger.info("Product type {} found", cachedType.getId());
-            return Optional.of(cachedType);
+            String pattern = "%" + query.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            List<Long> ids = productRepository.searchIdsByOwnerIdAndName(productOwnerService.resolve(token), query.trim(), pattern, limit);
+            Map<Long, ProductEntity> found = ids.isEmpty() ? Map.of() : productRepository.findAllByIdIn(ids).stream()
+                    .collect(Collectors.toMap(ProductEntity::getId, product -> product));
+            List<ProductEntity> products = ids.stream().map(found::get).filter(Objects::nonNull).toList();
+            logger.info("Found products by name: Count: {}", products.size());
+            return products;
         }, executor);
     }
+
+    /**
+     * METHOD: refreshProductTypes.
+     * This method reload product types catalog on all nodes.
+     * Refresh is allowed only with configured key, without key it is disabled.
+     *
+     * @param refreshKey Key of refresh.
+     * @return A message confirming that catalog refresh have been published or ProductAccessException.
+     */
+    public CompletableFuture<Void> refreshProductTypes(String refreshKey) {
+        if (typesRefreshKey.isEmpty() || refreshKey == null
+                || !MessageDigest.isEqual(typesRefreshKey.getBytes(StandardCharsets.UTF_8), refreshKey.getBytes(StandardCharsets.UTF_8))) {
+            logger.error("Incorrect product types refresh key");
+            throw new ProductAccessException("Refresh of product types is not allowed.");
+        }
+        return CompletableFuture.runAsync(productTypeCatalog::publishVersion, executor);
+    }
 }
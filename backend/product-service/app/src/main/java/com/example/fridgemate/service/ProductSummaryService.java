@@ -0,0 +1,360 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.ProductSummaryDto;
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.repository.ProductRepository;
+import com.example.fridgemate.repository.ProductSummaryRow;
+import com.example.fridgemate.repository.RemovedProduct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ProductSummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSummaryService.class);
+    private static final String COUNT_FIELD = "count";
+    private static final String AMOUNT_FIELD = "amount-cents";
+    private static final String TYPE_FIELD = "type: ";
+    private static final String EXPIRY_FIELD = "expiry: ";
+    private static final String SUMMARY_PREFIX = "summary: ";
+    private static final String BUILT_PREFIX = "summary-built: ";
+    private static final String BUILD_PREFIX = "summary-build: ";
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProductRepository productRepository;
+    private final ProductTypeCatalog productTypeCatalog;
+
+    @Autowired
+    public ProductSummaryService(StringRedisTemplate stringRedisTemplate,
+                                 ProductRepository productRepository,
+                                 ProductTypeCatalog productTypeCatalog) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.productRepository = productRepository;
+        this.productTypeCatalog = productTypeCatalog;
+    }
+
+    /**
+     * METHOD: summaryKey.
+     * This method build key of personal summary.
+     *
+     * @param ownerId Owner id.
+     * @return Summary key.
+     */
+    private String summaryKey(Long ownerId) {
+        return SUMMARY_PREFIX + ownerId;
+    }
+
+    /**
+     * METHOD: builtKey.
+     * This method build key of flag that personal summary was loaded from db.
+     *
+     * @param ownerId Owner id.
+     * @return Flag key.
+     */
+    private String builtKey(Long ownerId) {
+        return BUILT_PREFIX + ownerId;
+    }
+
+    /**
+     * METHOD: toCents.
+     * This method convert product amount to integer cents, so increments do not drift.
+     * Amount is rounded like numeric column with scale 2 stores it.
+     *
+     * @param amount Product amount.
+     * @return Amount in cents.
+     */
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * METHOD: add.
+     * This method add products to personal summaries in one pipelined round trip.
+     * Summaries built from db in this call already contain committed products and are not incremented.
+     *
+     * @param products Added products.
+     */
+    public void add(List<ProductEntity> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        Set<Long> built = ensureBuilt(products.stream().map(ProductEntity::getOwnerId).collect(Collectors.toSet()));
+        List<ProductEntity> pending = products.stream().filter(product -> !built.contains(product.getOwnerId())).toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                pending.forEach(product -> increment(redisOperations, summaryKey(product.getOwnerId()),
+                        product.getType().getId(), product.getExpiryDate(), product.getAmount(), 1));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * METHOD: remove.
+     * This method subtract deleted products from personal summaries in one pipelined round trip.
+     * Summaries built from db in this call already miss deleted products and are not decremented.
+     *
+     * @param products Deleted products.
+     */
+    public void remove(List<RemovedProduct> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        Set<Long> built = ensureBuilt(products.stream().map(RemovedProduct::getOwnerId).collect(Collectors.toSet()));
+        List<RemovedProduct> pending = products.stream().filter(product -> !built.contains(product.getOwnerId())).toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                pending.forEach(product -> increment(redisOperations, summaryKey(product.getOwnerId()),
+                        product.getTypeId(), product.getExpiryDate(), product.getAmount(), -1));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * METHOD: clear.
+     * This method delete personal summary after all products have been deleted.
+     *
+     * @param ownerId Owner id.
+     */
+    public void clear(Long ownerId) {
+        stringRedisTemplate.delete(summaryKey(ownerId));
+        stringRedisTemplate.opsForValue().set(builtKey(ownerId), "1");
+    }
+
+    /**
+     * METHOD: ensureBuilt.
+     * This method load personal summaries from db on first use, so increments never start from missing hash.
+     *
+     * @param ownerIds Owner ids.
+     * @return Owner ids which summaries have been built in this call.
+     */
+    private Set<Long> ensureBuilt(Set<Long> ownerIds) {
+        Set<Long> built = new HashSet<>();
+        for (Long ownerId : ownerIds) {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(builtKey(ownerId)))) {
+                Map<String, Long> fields = new HashMap<>();
+                productRepository.findSummaryRowsByOwnerId(ownerId).forEach(row -> merge(fields, row));
+                replace(ownerId, fields);
+                built.add(ownerId);
+                logger.info("Product summary built");
+            }
+        }
+        return built;
+    }
+
+    /**
+     * METHOD: merge.
+     * This method add one summary row to recomputed fields.
+     *
+     * @param fields Summary fields.
+     * @param row Summary row.
+     */
+    private void merge(Map<String, Long> fields, ProductSummaryRow row) {
+        fields.merge(COUNT_FIELD, row.getProductsCount(), Long::sum);
+        fields.merge(AMOUNT_FIELD, toCents(row.getAmount()), Long::sum);
+        fields.merge(TYPE_FIELD + row.getTypeId(), row.getProductsCount(), Long::sum);
+        fields.merge(EXPIRY_FIELD + row.getExpiryDate(), row.getProductsCount(), Long::sum);
+    }
+
+    /**
+     * METHOD: increment.
+     * This method change counters of personal summary by one product.
+     *
+     * @param operations Redis operations.
+     * @param key Summary key.
+     * @param typeId Product type id.
+     * @param expiryDate Product expiry date.
+     * @param amount Product amount.
+     * @param sign 1 for added product, -1 for deleted product.
+     */
+    private void increment(RedisOperations<String, String> operations, String key,
+                           Long typeId, LocalDate expiryDate, BigDecimal amount, int sign) {
+        operations.opsForHash().increment(key, COUNT_FIELD, sign);
+        operations.opsForHash().increment(key, AMOUNT_FIELD, sign * toCents(amount));
+        operations.opsForHash().increment(key, TYPE_FIELD + typeId, sign);
+        operations.opsForHash().increment(key, EXPIRY_FIELD + expiryDate, sign);
+    }
+
+    /**
+     * METHOD: getSummary.
+     * This method read personal summary with one HGETALL.
+     * Personal summary is loaded from db on first use.
+     *
+     * @param ownerId Owner id.
+     * @return {@link ProductSummaryDto}.
+     */
+    public ProductSummaryDto getSummary(Long ownerId) {
+        ensureBuilt(Set.of(ownerId));
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(summaryKey(ownerId));
+        LocalDate today = LocalDate.now();
+        long count = 0;
+        long amountCents = 0;
+        Map<String, Long> byType = new LinkedHashMap<>();
+        Map<String, Long> byExpiry = new LinkedHashMap<>();
+        byExpiry.put("expired", 0L);
+        byExpiry.put("soon", 0L);
+        byExpiry.put("week", 0L);
+        byExpiry.put("later", 0L);
+        for (Map.Entry<Object, Object> field : fields.entrySet()) {
+            String name = (String) field.getKey();
+            long value = Long.parseLong((String) field.getValue());
+            if (value == 0) {
+                continue;
+            }
+            if (name.equals(COUNT_FIELD)) {
+                count = value;
+            } else if (name.equals(AMOUNT_FIELD)) {
+                amountCents = value;
+            } else if (name.startsWith(TYPE_FIELD)) {
+                Long typeId = Long.parseLong(name.substring(TYPE_FIELD.length()));
+                String typeName = productTypeCatalog.findById(typeId)
+                        .map(ProductTypeEntity::getName)
+                        .orElse(String.valueOf(typeId));
+                byType.merge(typeName, value, Long::sum);
+            } else if (name.startsWith(EXPIRY_FIELD)) {
+                LocalDate expiryDate = LocalDate.parse(name.substring(EXPIRY_FIELD.length()));
+                byExpiry.merge(expiryBucket(expiryDate, today), value, Long::sum);
+            }
+        }
+        return new ProductSummaryDto(count, BigDecimal.valueOf(amountCents, 2), byType, byExpiry);
+    }
+
+    /**
+     * METHOD: expiryBucket.
+     * This method get name of expiry bucket of product.
+     *
+     * @param expiryDate Product expiry date.
+     * @param today Today.
+     * @return Bucket name.
+     */
+    private String expiryBucket(LocalDate expiryDate, LocalDate today) {
+        if (expiryDate.isBefore(today)) {
+            return "expired";
+        }
+        if (!expiryDate.isAfter(today.plusDays(1))) {
+            return "soon";
+        }
+        if (!expiryDate.isAfter(today.plusDays(7))) {
+            return "week";
+        }
+        return "later";
+    }
+
+    /**
+     * METHOD: reconcile.
+     * This method recompute all personal summaries from db to fix drift.
+     * Summaries of users without products are deleted.
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        int users = 0;
+        Set<Long> owners = new HashSet<>();
+        try (Stream<ProductSummaryRow> rows = productRepository.streamSummaryRows()) {
+            Iterator<ProductSummaryRow> iterator = rows.iterator();
+            Long ownerId = null;
+            Map<String, Long> fields = new HashMap<>();
+            while (iterator.hasNext()) {
+                ProductSummaryRow row = iterator.next();
+                if (ownerId != null && !ownerId.equals(row.getOwnerId())) {
+                    replace(ownerId, fields);
+                    fields.clear();
+                    users++;
+                }
+                ownerId = row.getOwnerId();
+                owners.add(ownerId);
+                merge(fields, row);
+            }
+            if (ownerId != null) {
+                replace(ownerId, fields);
+                users++;
+            }
+        }
+        int deleted = deleteStale(owners);
+        logger.info("Product summaries reconciled: Users: {}, Deleted: {}", users, deleted);
+    }
+
+    /**
+     * METHOD: deleteStale.
+     * This method delete summaries of users which had no products during reconcile.
+     * User is checked again before delete, so product added after scan keeps its summary.
+     * Keys which suffix is not owner id are left from token keyed summaries and deleted too.
+     *
+     * @param owners Owner ids with products.
+     * @return Count of deleted summaries.
+     */
+    private int deleteStale(Set<Long> owners) {
+        int deleted = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(SUMMARY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                String suffix = key.substring(SUMMARY_PREFIX.length());
+                boolean legacy = suffix.isEmpty() || !suffix.chars().allMatch(Character::isDigit);
+                if (legacy || !owners.contains(Long.valueOf(suffix)) && !productRepository.existsByOwnerId(Long.valueOf(suffix))) {
+                    stringRedisTemplate.delete(key);
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * METHOD: replace.
+     * This method build recomputed fields into fresh key and swap it in with RENAME.
+     * Old summary is replaced atomically and is never seen empty by readers.
+     * Summary without fields is deleted, because Redis does not keep empty hash.
+     *
+     * @param ownerId Owner id.
+     * @param fields Summary fields.
+     */
+    private void replace(Long ownerId, Map<String, Long> fields) {
+        String key = summaryKey(ownerId);
+        if (fields.isEmpty()) {
+            stringRedisTemplate.delete(key);
+        } else {
+            String buildKey = BUILD_PREFIX + ownerId + ": " + UUID.randomUUID();
+            Map<String, String> values = new HashMap<>();
+            fields.forEach((name, value) -> values.put(name, String.valueOf(value)));
+            stringRedisTemplate.opsForHash().putAll(buildKey, values);
+            stringRedisTemplate.rename(buildKey, key);
+        }
+        stringRedisTemplate.opsForValue().set(builtKey(ownerId), "1");
+    }
+}
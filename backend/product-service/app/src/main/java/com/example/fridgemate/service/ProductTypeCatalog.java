@@ -0,0 +1,219 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.repository.ProductTypeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductTypeCatalog implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProductTypeCatalog.class);
+    public static final String VERSION_KEY = "product-types: version";
+    public static final String VERSION_CHANNEL = "product-types: refresh";
+    private static final long UNKNOWN_VERSION = -1;
+    private final ProductTypeRepository productTypeRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long loadedVersion = UNKNOWN_VERSION;
+
+    @Autowired
+    public ProductTypeCatalog(ProductTypeRepository productTypeRepository,
+                              StringRedisTemplate stringRedisTemplate) {
+        this.productTypeRepository = productTypeRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Immutable view of product types indexed by id, by name and by lower-case name prefix.
+     */
+    private record Snapshot(List<ProductTypeEntity> types,
+                            Map<Long, ProductTypeEntity> byId,
+                            Map<String, ProductTypeEntity> byName,
+                            String[] sortedNames,
+                            ProductTypeEntity[] sortedTypes) {
+        private static final Snapshot EMPTY = of(List.of());
+
+        private static Snapshot of(List<ProductTypeEntity> types) {
+            ProductTypeEntity[] sortedTypes = types.stream()
+                    .sorted(Comparator.comparing(type -> normalize(type.getName())))
+                    .toArray(ProductTypeEntity[]::new);
+            String[] sortedNames = Arrays.stream(sortedTypes)
+                    .map(type -> normalize(type.getName()))
+                    .toArray(String[]::new);
+            return new Snapshot(List.copyOf(types),
+                    types.stream().collect(Collectors.toUnmodifiableMap(ProductTypeEntity::getId, Function.identity())),
+                    types.stream().collect(Collectors.toUnmodifiableMap(ProductTypeEntity::getName, Function.identity())),
+                    sortedNames,
+                    sortedTypes);
+        }
+    }
+
+    /**
+     * METHOD: normalize.
+     * This method bring type name to form used by prefix search.
+     *
+     * @param name Type name.
+     * @return Lower-case name.
+     */
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * METHOD: reload.
+     * This method load all product types from db and replace snapshot.
+     * Version is read before types, so bump made during load is noticed by next check.
+     */
+    @PostConstruct
+    public void reload() {
+        long version;
+        try {
+            version = readVersion();
+        } catch (RuntimeException exception) {
+            logger.error("Product type catalog version is not available: {}", exception.getMessage());
+            version = UNKNOWN_VERSION;
+        }
+        load(version);
+    }
+
+    /**
+     * METHOD: load.
+     * This method load all product types from db and remember version of loaded snapshot.
+     *
+     * @param version Catalog version.
+     */
+    synchronized void load(long version) {
+        snapshot = Snapshot.of(productTypeRepository.findAll());
+        loadedVersion = version;
+        logger.info("Product type catalog loaded: Count: {}, Version: {}", snapshot.types().size(), version);
+    }
+
+    /**
+     * METHOD: readVersion.
+     * This method get current catalog version from Redis.
+     *
+     * @return Catalog version, 0 if it was never published.
+     */
+    private long readVersion() {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    /**
+     * METHOD: checkVersion.
+     * This method reload catalog when its version differs from Redis,
+     * so node which missed refresh message is not stale until restart.
+     */
+    @Scheduled(fixedDelayString = "${product.types.version-check-ms:30000}")
+    public void checkVersion() {
+        try {
+            if (readVersion() != loadedVersion) {
+                logger.info("Product type catalog is stale: Loaded version: {}", loadedVersion);
+                reload();
+            }
+        } catch (RuntimeException exception) {
+            logger.error("Product type catalog version check error: {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * METHOD: publishVersion.
+     * This method bump catalog version and notify all product-service nodes to reload.
+     */
+    public void publishVersion() {
+        Long version = stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+        stringRedisTemplate.convertAndSend(VERSION_CHANNEL, String.valueOf(version));
+        logger.info("Product type catalog version published: {}", version);
+    }
+
+    /**
+     * METHOD: onMessage.
+     * This method reload catalog after version bump from any node.
+     *
+     * @param message Message with new version.
+     * @param pattern Channel pattern.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        logger.info("Product type catalog version changed");
+        reload();
+    }
+
+    /**
+     * METHOD: findAll.
+     * This method get all product types.
+     *
+     * @return List of {@link ProductTypeEntity}.
+     */
+    public List<ProductTypeEntity> findAll() {
+        return snapshot.types();
+    }
+
+    /**
+     * METHOD: findById.
+     * This method get product type by id.
+     *
+     * @param id Identity of type.
+     * @return An optional {@link ProductTypeEntity}.
+     */
+    public Optional<ProductTypeEntity> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    /**
+     * METHOD: findByName.
+     * This method get product type by name.
+     *
+     * @param name Type name.
+     * @return An optional {@link ProductTypeEntity}.
+     */
+    public Optional<ProductTypeEntity> findByName(String name) {
+        return Optional.ofNullable(snapshot.byName().get(name));
+    }
+
+    /**
+     * METHOD: findByPrefix.
+     * This method get product types which names start with prefix, ignoring case.
+     * Binary search finds matching name in sorted names, equal names before it are scanned back,
+     * so search starts from the first match.
+     *
+     * @param prefix Beginning of type name.
+     * @param limit Maximum count of types.
+     * @return List of {@link ProductTypeEntity} ordered by name.
+     */
+    public List<ProductTypeEntity> findByPrefix(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String normalizedPrefix = normalize(prefix);
+        int index = Arrays.binarySearch(current.sortedNames(), normalizedPrefix);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        while (index > 0 && current.sortedNames()[index - 1].equals(normalizedPrefix)) {
+            index--;
+        }
+        List<ProductTypeEntity> types = new ArrayList<>(limit);
+        while (index < current.sortedNames().length && types.size() < limit
+                && current.sortedNames()[index].startsWith(normalizedPrefix)) {
+            types.add(current.sortedTypes()[index]);
+            index++;
+        }
+        return types;
+    }
+}
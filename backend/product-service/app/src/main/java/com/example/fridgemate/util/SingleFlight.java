@@ -0,0 +1,47 @@
+package com.example.fridgemate.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader,
+ * other callers wait for its result instead of loading again.
+ * Waiters get the same exception as the loading caller, not a CompletionException around it.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error exception) {
+            created.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1 @@
+ALTER SEQUENCE IF EXISTS products_id_seq INCREMENT BY 50;
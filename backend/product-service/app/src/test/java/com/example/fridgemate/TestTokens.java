@@ -0,0 +1,35 @@
+package com.example.fridgemate;
+
+import io.jsonwebtoken.Jwts;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens signed with the key of the service, so tests pass JwtUtil validation.
+ */
+public final class TestTokens {
+    private static final String KEY_FILE = "src/main/resources/keys/secret-key.dat";
+
+    private TestTokens() {
+    }
+
+    public static String create(String subject) {
+        try {
+            SecretKeySpec key = new SecretKeySpec(Files.readAllBytes(Paths.get(KEY_FILE)), "HmacSHA256");
+            return Jwts.builder()
+                    .subject(subject)
+                    .issuedAt(new Date())
+                    .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                    .signWith(key)
+                    .compact();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
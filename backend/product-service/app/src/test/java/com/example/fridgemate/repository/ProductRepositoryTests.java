@@ -0,0 +1,202 @@
+package com.example.fridgemate.repository;
+
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against the db configured in application.properties, like the context test.
+ */
+@SpringBootTest
+@TestPropertySource("classpath:db-test.properties")
+class ProductRepositoryTests {
+    private static final int CONSUMERS = 8;
+    private static final int QUANTITY = 100;
+    private static final int BATCH_SIZE = 50;
+    private static final int TYPES = 5;
+    private static final int PRODUCTS_PER_TYPE = 4;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductTypeRepository productTypeRepository;
+    @Autowired
+    private ProductOwnerRepository productOwnerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private final List<ProductTypeEntity> types = new ArrayList<>();
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = productOwnerRepository.upsertReturningId("test-" + UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllByOwnerIdReturning(ownerId);
+        productTypeRepository.deleteAll(types);
+        productOwnerRepository.deleteById(ownerId);
+    }
+
+    private ProductTypeEntity type() {
+        ProductTypeEntity type = new ProductTypeEntity();
+        type.setName("test-" + UUID.randomUUID());
+        type.setShelfDays(7);
+        type.setQuantityType("шт");
+        type = productTypeRepository.save(type);
+        types.add(type);
+        return type;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private List<ProductTypeEntity> fridge() {
+        List<ProductTypeEntity> fridgeTypes = new ArrayList<>();
+        List<ProductEntity> products = new ArrayList<>();
+        for (int i = 0; i < TYPES; i++) {
+            ProductTypeEntity type = type();
+            fridgeTypes.add(type);
+            for (int j = 0; j < PRODUCTS_PER_TYPE; j++) {
+                products.add(product(type, 1));
+            }
+        }
+        productRepository.saveAll(products);
+        statistics().clear();
+        return fridgeTypes;
+    }
+
+    private ProductEntity product(ProductTypeEntity type, int quantity) {
+        ProductEntity product = new ProductEntity();
+        product.setToken("test-token");
+        product.setOwnerId(ownerId);
+        product.setName(type.getName());
+        product.setType(type);
+        product.setExpiryDate(LocalDate.now().plusDays(7));
+        product.setQuantity(quantity);
+        product.setAddedDate(LocalDate.now());
+        product.setAmount(BigDecimal.TEN);
+        return product;
+    }
+
+    @Test
+    void concurrentConsumersNeitherOverConsumeNorDeleteTwice() throws Exception {
+        Long id = productRepository.save(product(type(), QUANTITY)).getId();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger deleted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONSUMERS);
+        try {
+            List<Future<?>> consumers = new ArrayList<>();
+            for (int consumer = 0; consumer < CONSUMERS; consumer++) {
+                int amount = 1 + consumer % 3;
+                consumers.add(executor.submit(() -> {
+                    start.await();
+                    Optional<Integer> left;
+                    do {
+                        left = productRepository.consumeReturningQuantity(id, ownerId, amount);
+                        left.ifPresent(ignored -> consumed.addAndGet(amount));
+                    } while (left.isPresent() && left.get() > 0);
+                    if (productRepository.deleteConsumedReturning(id).isPresent()) {
+                        deleted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> consumer : consumers) {
+                consumer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(QUANTITY, consumed.get());
+        assertEquals(1, deleted.get());
+        assertTrue(productRepository.findById(id).isEmpty());
+    }
+
+    @Test
+    void consumeOfMoreThanLeftChangesNothing() {
+        Long id = productRepository.save(product(type(), 2)).getId();
+
+        assertTrue(productRepository.consumeReturningQuantity(id, ownerId, 3).isEmpty());
+        assertTrue(productRepository.consumeReturningQuantity(id, ownerId + 1, 1).isEmpty());
+        assertTrue(productRepository.deleteConsumedReturning(id).isEmpty());
+        assertEquals(2, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void saveAllInsertsBatchWithFewStatements() {
+        ProductTypeEntity type = type();
+        List<ProductEntity> products = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            products.add(product(type, 1));
+        }
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        productRepository.saveAll(products);
+
+        assertEquals(BATCH_SIZE, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 3, "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByOwnerIdLoadsTypesInOneStatement() {
+        fridge();
+
+        List<ProductEntity> products = productRepository.findAllByOwnerId(ownerId);
+
+        assertEquals(TYPES * PRODUCTS_PER_TYPE, products.size());
+        assertEquals(TYPES, products.stream().map(product -> product.getType().getName()).distinct().count());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByTypeAndOwnerIdLoadsTypeInOneStatement() {
+        ProductTypeEntity type = fridge().get(0);
+
+        List<ProductEntity> products = productRepository.findAllByTypeAndOwnerId(type, ownerId).orElseThrow();
+
+        assertEquals(PRODUCTS_PER_TYPE, products.size());
+        products.forEach(product -> assertEquals(type.getName(), product.getType().getName()));
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findDistinctTypesByOwnerIdUsesOneStatement() {
+        List<ProductTypeEntity> fridgeTypes = fridge();
+
+        List<ProductTypeEntity> found = productRepository.findDistinctTypesByOwnerId(ownerId);
+
+        assertEquals(fridgeTypes.stream().map(ProductTypeEntity::getId).sorted().toList(),
+                found.stream().map(ProductTypeEntity::getId).sorted().toList());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.exception.ProductOverloadedException;
+import com.example.fridgemate.service.ProductAdmissionService.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductAdmissionServiceTests {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MeterRegistry meterRegistry;
+    private ProductAdmissionService productAdmissionService;
+    private ThreadPoolTaskExecutor readExecutor;
+    private ThreadPoolTaskExecutor writeExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productAdmissionService = new ProductAdmissionService(meterRegistry, 0.5, 0.8, 1.0, 500);
+        readExecutor = executor(ProductAdmissionService.READ_EXECUTOR);
+        writeExecutor = executor(ProductAdmissionService.WRITE_EXECUTOR);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        readExecutor.shutdown();
+        writeExecutor.shutdown();
+    }
+
+    private ThreadPoolTaskExecutor executor(String name) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(2);
+        executor.setTaskDecorator(productAdmissionService.decorator(name));
+        executor.setRejectedExecutionHandler(productAdmissionService.rejectionHandler(name));
+        executor.initialize();
+        productAdmissionService.monitor(name, executor);
+        return executor;
+    }
+
+    private void fill(ThreadPoolTaskExecutor executor) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await();
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private double gauge(String name, String executor) {
+        return meterRegistry.get(name).tag("executor", executor).gauge().value();
+    }
+
+    @Test
+    void fullWriteQueueShedsWritesOnly() throws Exception {
+        fill(writeExecutor);
+
+        assertThrows(ProductOverloadedException.class, () -> productAdmissionService.admit(Priority.WRITE));
+        assertDoesNotThrow(() -> productAdmissionService.admit(Priority.READ));
+        assertDoesNotThrow(() -> productAdmissionService.admit(Priority.BULK_READ));
+        assertEquals(1, count("product.admission.rejected", "priority", "write"));
+        assertEquals(2, gauge("product.executor.queue.size", ProductAdmissionService.WRITE_EXECUTOR));
+        assertEquals(0, gauge("product.executor.queue.size", ProductAdmissionService.READ_EXECUTOR));
+        assertEquals(1, gauge("product.executor.active", ProductAdmissionService.WRITE_EXECUTOR));
+    }
+
+    @Test
+    void readQueueShedsBulkReadsBeforeReads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        readExecutor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await();
+        readExecutor.execute(this::awaitRelease);
+
+        assertThrows(ProductOverloadedException.class, () -> productAdmissionService.admit(Priority.BULK_READ));
+        assertDoesNotThrow(() -> productAdmissionService.admit(Priority.READ));
+        assertDoesNotThrow(() -> productAdmissionService.admit(Priority.WRITE));
+        assertEquals(1, count("product.admission.rejected", "priority", "bulk_read"));
+    }
+
+    @Test
+    void executorRejectionIsCountedForItsExecutor() throws Exception {
+        fill(writeExecutor);
+
+        ProductOverloadedException exception = assertThrows(ProductOverloadedException.class,
+                () -> writeExecutor.execute(this::awaitRelease));
+
+        assertEquals(1, count("product.executor.rejected", "executor", ProductAdmissionService.WRITE_EXECUTOR));
+        assertEquals(0, count("product.executor.rejected", "executor", ProductAdmissionService.READ_EXECUTOR));
+        assertEquals(1, exception.getRetryAfterSeconds());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.repository.ProductOwnerRepository;
+import com.example.fridgemate.repository.ProductRepository;
+import com.example.fridgemate.repository.ProductTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent misses of one product key against the db and Redis configured in application.properties.
+ * Loader is slowed down like busy db, so all requests miss while the first load is running.
+ */
+@SpringBootTest
+@TestPropertySource("classpath:db-test.properties")
+class ProductCacheServiceTests {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheServiceTests.class);
+    private static final int REQUESTS = 64;
+    private static final long LOAD_MILLIS = 200;
+    @Autowired
+    private ProductCacheService productCacheService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductTypeRepository productTypeRepository;
+    @Autowired
+    private ProductOwnerRepository productOwnerRepository;
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    private final AtomicInteger loads = new AtomicInteger();
+    private ProductTypeEntity type;
+    private Long ownerId;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        String name = "test-" + UUID.randomUUID();
+        ownerId = productOwnerRepository.upsertReturningId(name);
+        type = new ProductTypeEntity();
+        type.setName(name);
+        type.setShelfDays(7);
+        type.setQuantityType("шт");
+        type = productTypeRepository.save(type);
+        ProductEntity product = new ProductEntity();
+        product.setToken("test-token");
+        product.setOwnerId(ownerId);
+        product.setName(name);
+        product.setType(type);
+        product.setExpiryDate(LocalDate.now().plusDays(7));
+        product.setQuantity(1);
+        product.setAddedDate(LocalDate.now());
+        product.setAmount(BigDecimal.TEN);
+        id = productRepository.save(product).getId();
+        redisTemplate.delete("product: " + id);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(List.of("product: " + id, "product: " + (id + 1_000_000)));
+        productRepository.deleteAllByOwnerIdReturning(ownerId);
+        productTypeRepository.delete(type);
+        productOwnerRepository.deleteById(ownerId);
+    }
+
+    private Optional<ProductEntity> slowLoad(Long productId) {
+        loads.incrementAndGet();
+        try {
+            Thread.sleep(LOAD_MILLIS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return productRepository.findById(productId);
+    }
+
+    private List<Optional<ProductEntity>> concurrently(Function<Long, Optional<ProductEntity>> request, Long productId) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<Optional<ProductEntity>>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    return request.apply(productId);
+                }));
+            }
+            start.countDown();
+            List<Optional<ProductEntity>> results = new ArrayList<>();
+            for (Future<Optional<ProductEntity>> result : requests) {
+                results.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        long started = System.nanoTime();
+        List<Optional<ProductEntity>> results = concurrently(productId -> productCacheService.getProduct(productId, this::slowLoad), id);
+        long coalescedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        int coalescedLoads = loads.getAndSet(0);
+
+        redisTemplate.delete("product: " + id);
+        started = System.nanoTime();
+        concurrently(this::slowLoad, id);
+        long uncoalescedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        int uncoalescedLoads = loads.get();
+
+        logger.info("Coalesced misses: {} requests, {} db loads, {} ms", REQUESTS, coalescedLoads, coalescedMillis);
+        logger.info("Uncoalesced misses: {} requests, {} db loads, {} ms", REQUESTS, uncoalescedLoads, uncoalescedMillis);
+        assertTrue(results.stream().allMatch(product -> product.isPresent() && product.get().getId().equals(id)));
+        assertEquals(1, coalescedLoads);
+        assertEquals(REQUESTS, uncoalescedLoads);
+        assertTrue(redisTemplate.hasKey("product: " + id));
+    }
+
+    @Test
+    void concurrentMissesOfAbsentProductShareOneLoadAndAreCached() throws Exception {
+        Long absentId = id + 1_000_000;
+
+        List<Optional<ProductEntity>> results = concurrently(productId -> productCacheService.getProduct(productId, this::slowLoad), absentId);
+
+        assertTrue(results.stream().allMatch(Optional::isEmpty));
+        assertEquals(1, loads.get());
+        assertTrue(productCacheService.getProduct(absentId, this::slowLoad).isEmpty());
+        assertEquals(1, loads.get());
+    }
+}
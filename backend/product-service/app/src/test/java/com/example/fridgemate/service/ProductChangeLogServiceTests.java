@@ -0,0 +1,134 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.ProductChangeDto;
+import com.example.fridgemate.dto.ProductChangesDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductChangeLogServiceTests {
+    private static final Long OWNER_ID = 7L;
+    private StringRedisTemplate stringRedisTemplate;
+    private ZSetOperations<String, Object> zSetOperations;
+    private ProductChangeLogService productChangeLogService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        productChangeLogService = new ProductChangeLogService(redisTemplate, stringRedisTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenVersion(long version) {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), eq("0"))).thenReturn(version);
+    }
+
+    private void givenLog(long... versions) {
+        Set<Object> entries = new LinkedHashSet<>();
+        Arrays.stream(versions).forEach(version ->
+                entries.add(new ProductChangeDto(version, ProductChangeLogService.UPDATE, version, null, 1)));
+        when(zSetOperations.rangeByScore(eq("changes: " + OWNER_ID), anyDouble(), anyDouble())).thenReturn(entries);
+    }
+
+    private static List<Long> versions(ProductChangesDto changes) {
+        return changes.getChanges().stream().map(ProductChangeDto::getVersion).toList();
+    }
+
+    @Test
+    void currentClientGetsNoChanges() {
+        givenVersion(10);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 10);
+
+        assertFalse(changes.isResync());
+        assertEquals(10, changes.getVersion());
+        assertTrue(changes.getChanges().isEmpty());
+    }
+
+    @Test
+    void clientAheadOfLogHasToResync() {
+        givenVersion(10);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 15);
+
+        assertTrue(changes.isResync());
+        assertEquals(10, changes.getVersion());
+        assertTrue(changes.getChanges().isEmpty());
+    }
+
+    @Test
+    void contiguousLogIsReturnedInOrder() {
+        givenVersion(10);
+        givenLog(8, 9, 10);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 7);
+
+        assertFalse(changes.isResync());
+        assertEquals(10, changes.getVersion());
+        assertEquals(List.of(8L, 9L, 10L), versions(changes));
+    }
+
+    @Test
+    void trimmedLogRequiresResync() {
+        givenVersion(10);
+        givenLog(9, 10);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 7);
+
+        assertTrue(changes.isResync());
+        assertTrue(changes.getChanges().isEmpty());
+    }
+
+    @Test
+    void gapInLogRequiresResync() {
+        givenVersion(10);
+        givenLog(8, 10);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 7);
+
+        assertTrue(changes.isResync());
+        assertTrue(changes.getChanges().isEmpty());
+    }
+
+    @Test
+    void logWithoutLastChangesRequiresResync() {
+        givenVersion(10);
+        givenLog(8, 9);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 7);
+
+        assertTrue(changes.isResync());
+    }
+
+    @Test
+    void expiredLogRequiresResync() {
+        givenVersion(10);
+        when(zSetOperations.rangeByScore(eq("changes: " + OWNER_ID), anyDouble(), anyDouble())).thenReturn(null);
+
+        ProductChangesDto changes = productChangeLogService.getChanges(OWNER_ID, 7);
+
+        assertTrue(changes.isResync());
+    }
+}
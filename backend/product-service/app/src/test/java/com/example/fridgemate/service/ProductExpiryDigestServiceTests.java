@@ -0,0 +1,97 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.NotificationDto;
+import com.example.fridgemate.repository.ProductDigestRow;
+import com.example.fridgemate.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Digest payload is checked against contract of POST /api/notifications/new in notification-service:
+ * NotificationDto fields, NotificationService.isValidType and message column length.
+ */
+class ProductExpiryDigestServiceTests {
+    private static final Set<String> NOTIFICATION_FIELDS = Set.of("token", "message", "notificationType", "timestamp");
+    private static final List<String> NOTIFICATION_TYPES = List.of("INF", "ERR", "WAR");
+    private static final String TIMESTAMP_PATTERN = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}";
+    private ProductExpiryDigestService productExpiryDigestService;
+
+    private record Row(Long getId, Long getOwnerId, String getToken, String getName, Integer getExpiryEpochDay)
+            implements ProductDigestRow {
+    }
+
+    @BeforeEach
+    void setUp() {
+        productExpiryDigestService = new ProductExpiryDigestService(mock(ProductRepository.class),
+                mock(StringRedisTemplate.class), RestClient.builder(), Runnable::run,
+                "http://localhost:8084/api/notifications/new", 3, 4, 500);
+    }
+
+    private static ProductDigestRow row(long id, String name, LocalDate expiryDate) {
+        return new Row(id, 1L, "token", name, (int) expiryDate.toEpochDay());
+    }
+
+    private static void assertAccepted(NotificationDto notification) {
+        JsonNode json = new ObjectMapper().valueToTree(notification);
+        Set<String> fields = new TreeSet<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(new TreeSet<>(NOTIFICATION_FIELDS), fields);
+        assertNotNull(notification.getToken());
+        assertNotNull(notification.getMessage());
+        assertTrue(NOTIFICATION_TYPES.contains(notification.getNotificationType()), notification.getNotificationType());
+        assertTrue(notification.getTimestamp().matches(TIMESTAMP_PATTERN), notification.getTimestamp());
+        assertTrue(notification.getMessage().length() <= ProductExpiryDigestService.MAX_MESSAGE_LENGTH);
+    }
+
+    @Test
+    void digestListsProductsByExpiryDate() {
+        LocalDate today = LocalDate.now();
+
+        NotificationDto notification = productExpiryDigestService.toNotification(List.of(
+                row(1, "Молоко", today.plusDays(2)),
+                row(2, "Сыр", today.plusDays(1))));
+
+        assertAccepted(notification);
+        assertEquals("token", notification.getToken());
+        assertEquals("2 products expire within 3 days: Сыр (" + today.plusDays(1) + "), Молоко (" + today.plusDays(2) + ")",
+                notification.getMessage());
+    }
+
+    @Test
+    void longDigestIsCutToMessageColumn() {
+        List<ProductDigestRow> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(row(i, "Продукт с очень длинным названием " + i, LocalDate.now().plusDays(1)));
+        }
+
+        NotificationDto notification = productExpiryDigestService.toNotification(rows);
+
+        assertAccepted(notification);
+        assertTrue(notification.getMessage().startsWith("100 products expire within 3 days: "));
+        assertTrue(notification.getMessage().matches(".* and \\d+ more"), notification.getMessage());
+    }
+
+    @Test
+    void digestOfOneProductIsAccepted() {
+        NotificationDto notification = productExpiryDigestService.toNotification(List.of(
+                row(1, "Кефир", LocalDate.now().plusDays(3))));
+
+        assertAccepted(notification);
+        assertTrue(notification.getMessage().startsWith("1 product expires within 3 days: Кефир"));
+    }
+}
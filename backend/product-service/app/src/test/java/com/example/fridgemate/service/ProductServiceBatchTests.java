@@ -0,0 +1,155 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.TestTokens;
+import com.example.fridgemate.dto.ProductBatchResultDto;
+import com.example.fridgemate.dto.ProductDto;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.repository.ProductOwnerRepository;
+import com.example.fridgemate.repository.ProductRepository;
+import com.example.fridgemate.repository.ProductTypeRepository;
+import com.example.fridgemate.repository.RemovedProduct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch import through ProductService against the db and Redis configured in application.properties.
+ * Throughput of one batch is compared with the same products added one by one, like clients looping over /add.
+ */
+@SpringBootTest
+@TestPropertySource("classpath:db-test.properties")
+class ProductServiceBatchTests {
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceBatchTests.class);
+    private static final int PRODUCTS = 200;
+    private static final int BATCHES = 4;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductCacheService productCacheService;
+    @Autowired
+    private ProductChangeLogService productChangeLogService;
+    @Autowired
+    private ProductOwnerService productOwnerService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductTypeRepository productTypeRepository;
+    @Autowired
+    private ProductOwnerRepository productOwnerRepository;
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private String token;
+    private Long ownerId;
+    private ProductTypeEntity type;
+
+    @BeforeEach
+    void setUp() {
+        String name = "test-" + UUID.randomUUID();
+        token = TestTokens.create(name);
+        ownerId = productOwnerService.resolve(token);
+        type = new ProductTypeEntity();
+        type.setName(name);
+        type.setShelfDays(7);
+        type.setQuantityType("шт");
+        type = productTypeRepository.save(type);
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> ids = productRepository.deleteAllByOwnerIdReturning(ownerId).stream().map(RemovedProduct::getId).toList();
+        productCacheService.evictProducts(ownerId, ids);
+        redisTemplate.delete(List.of(ProductChangeLogService.versionKey(ownerId), "changes: " + ownerId,
+                "summary: " + ownerId, "summary-built: " + ownerId, "expiry: " + ownerId));
+        productTypeRepository.delete(type);
+        productOwnerRepository.deleteById(ownerId);
+    }
+
+    private ProductDto dto(String quantity) {
+        ProductDto dto = new ProductDto();
+        dto.setName(type.getName());
+        dto.setTypeId(String.valueOf(type.getId()));
+        dto.setExpiryDate(LocalDate.now().plusDays(7).toString());
+        dto.setQuantity(quantity);
+        dto.setAmount("10.00");
+        return dto;
+    }
+
+    private List<ProductDto> dtos(int count) {
+        List<ProductDto> dtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            dtos.add(dto("1"));
+        }
+        return dtos;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void invalidProductsAreReportedByIndex() throws Exception {
+        ProductDto noName = dto("1");
+        noName.setName(null);
+
+        ProductBatchResultDto result = productService.addProducts(token, List.of(dto("1"), dto("x"), noName, dto("2"))).get();
+
+        assertEquals(List.of(0, 3), List.copyOf(result.getCreated().keySet()));
+        assertEquals(List.of(1, 2), List.copyOf(result.getErrors().keySet()));
+        assertTrue(result.getErrors().get(1).startsWith("quantity: "), result.getErrors().get(1));
+        assertTrue(result.getErrors().get(2).startsWith("name: "), result.getErrors().get(2));
+        assertEquals(2, productRepository.findAllByOwnerId(ownerId).size());
+    }
+
+    @Test
+    void batchAddsProductsFasterThanLoopOverAdd() throws Exception {
+        productService.addProducts(token, dtos(10)).get();
+        for (int i = 0; i < 10; i++) {
+            productService.addProduct(token, dto("1")).get();
+        }
+        Statistics statistics = statistics();
+
+        statistics.clear();
+        long loopStarted = System.nanoTime();
+        List<CompletableFuture<?>> adds = new ArrayList<>();
+        for (ProductDto dto : dtos(PRODUCTS)) {
+            adds.add(productService.addProduct(token, dto));
+        }
+        CompletableFuture.allOf(adds.toArray(CompletableFuture[]::new)).get();
+        long loopNanos = System.nanoTime() - loopStarted;
+        long loopStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long batchStarted = System.nanoTime();
+        for (int i = 0; i < BATCHES; i++) {
+            assertEquals(PRODUCTS / BATCHES, productService.addProducts(token, dtos(PRODUCTS / BATCHES)).get().getCreated().size());
+        }
+        long batchNanos = System.nanoTime() - batchStarted;
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        logger.info("Loop over add: {} products/s, {} statements", PRODUCTS * 1_000_000_000L / loopNanos, loopStatements);
+        logger.info("Batch add: {} products/s, {} statements", PRODUCTS * 1_000_000_000L / batchNanos, batchStatements);
+        assertEquals(2 * PRODUCTS + 20, productRepository.findAllByOwnerId(ownerId).size());
+        assertTrue(batchStatements * 10 < loopStatements, batchStatements + " vs " + loopStatements);
+        assertTrue(batchNanos < loopNanos, batchNanos + " vs " + loopNanos);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.TestTokens;
+import com.example.fridgemate.dto.ProductChangeDto;
+import com.example.fridgemate.dto.ProductConsumeDto;
+import com.example.fridgemate.entity.ProductEntity;
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.exception.ProductException;
+import com.example.fridgemate.repository.ProductOwnerRepository;
+import com.example.fridgemate.repository.ProductRepository;
+import com.example.fridgemate.repository.ProductTypeRepository;
+import com.example.fridgemate.repository.RemovedProduct;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consume flow through ProductService against the db and Redis configured in application.properties.
+ */
+@SpringBootTest
+@TestPropertySource("classpath:db-test.properties")
+class ProductServiceConsumeTests {
+    private static final int CONSUMERS = 20;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductCacheService productCacheService;
+    @Autowired
+    private ProductChangeLogService productChangeLogService;
+    @Autowired
+    private ProductOwnerService productOwnerService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductTypeRepository productTypeRepository;
+    @Autowired
+    private ProductOwnerRepository productOwnerRepository;
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    private String token;
+    private Long ownerId;
+    private ProductTypeEntity type;
+
+    @BeforeEach
+    void setUp() {
+        String name = "test-" + UUID.randomUUID();
+        token = TestTokens.create(name);
+        ownerId = productOwnerService.resolve(token);
+        type = new ProductTypeEntity();
+        type.setName(name);
+        type.setShelfDays(7);
+        type.setQuantityType("шт");
+        type = productTypeRepository.save(type);
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> ids = productRepository.deleteAllByOwnerIdReturning(ownerId).stream().map(RemovedProduct::getId).toList();
+        productCacheService.evictProducts(ownerId, ids);
+        redisTemplate.delete(List.of(ProductChangeLogService.versionKey(ownerId), "changes: " + ownerId, "summary: " + ownerId));
+        productTypeRepository.delete(type);
+        productOwnerRepository.deleteById(ownerId);
+    }
+
+    private Long save(int quantity) {
+        ProductEntity product = new ProductEntity();
+        product.setToken(token);
+        product.setOwnerId(ownerId);
+        product.setName(type.getName());
+        product.setType(type);
+        product.setExpiryDate(LocalDate.now().plusDays(7));
+        product.setQuantity(quantity);
+        product.setAddedDate(LocalDate.now());
+        product.setAmount(BigDecimal.TEN);
+        return productRepository.save(product).getId();
+    }
+
+    private List<String> operations(long since) {
+        return productChangeLogService.getChanges(ownerId, since).getChanges().stream()
+                .map(ProductChangeDto::getOperation)
+                .toList();
+    }
+
+    @Test
+    void consumeUpdatesQuantityThenDeletesProductAtZero() throws Exception {
+        Long id = save(3);
+        assertTrue(productService.findProductById(id).get().isPresent());
+        productService.getAllProducts(token).get();
+        assertTrue(productCacheService.findFridge(ownerId).isPresent());
+        long version = productChangeLogService.getVersion(ownerId);
+
+        ProductConsumeDto consumed = productService.consumeProduct(id, token, 2).get();
+
+        assertEquals(1, consumed.getQuantity());
+        assertFalse(consumed.isDeleted());
+        assertEquals(1, productRepository.findById(id).orElseThrow().getQuantity());
+        assertFalse(redisTemplate.hasKey("product: " + id));
+        assertTrue(productCacheService.findFridge(ownerId).isEmpty());
+        assertEquals(List.of(ProductChangeLogService.UPDATE), operations(version));
+        assertEquals(1, productChangeLogService.getChanges(ownerId, version).getChanges().get(0).getQuantity());
+
+        assertTrue(productService.findProductById(id).get().isPresent());
+        ProductConsumeDto usedUp = productService.consumeProduct(id, token, 1).get();
+
+        assertEquals(0, usedUp.getQuantity());
+        assertTrue(usedUp.isDeleted());
+        assertTrue(productRepository.findById(id).isEmpty());
+        assertFalse(redisTemplate.hasKey("product: " + id));
+        assertEquals(List.of(ProductChangeLogService.UPDATE, ProductChangeLogService.DELETE), operations(version));
+    }
+
+    @Test
+    void consumeOfMoreThanLeftFailsAndKeepsProduct() {
+        Long id = save(1);
+        long version = productChangeLogService.getVersion(ownerId);
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> productService.consumeProduct(id, token, 2).get());
+
+        assertInstanceOf(ProductException.class, exception.getCause());
+        assertEquals(1, productRepository.findById(id).orElseThrow().getQuantity());
+        assertTrue(operations(version).isEmpty());
+    }
+
+    @Test
+    void concurrentConsumeThroughServiceDeletesOnce() throws Exception {
+        Long id = save(CONSUMERS);
+        long version = productChangeLogService.getVersion(ownerId);
+        List<CompletableFuture<ProductConsumeDto>> consumers = new ArrayList<>();
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers.add(productService.consumeProduct(id, token, 1));
+        }
+        List<ProductConsumeDto> results = new ArrayList<>();
+        for (CompletableFuture<ProductConsumeDto> consumer : consumers) {
+            results.add(consumer.get(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals(CONSUMERS, results.stream().map(ProductConsumeDto::getQuantity).distinct().count());
+        assertEquals(1, results.stream().filter(ProductConsumeDto::isDeleted).count());
+        assertTrue(productRepository.findById(id).isEmpty());
+        List<String> operations = operations(version);
+        assertEquals(CONSUMERS, operations.size());
+        assertEquals(1, operations.stream().filter(ProductChangeLogService.DELETE::equals).count());
+    }
+}
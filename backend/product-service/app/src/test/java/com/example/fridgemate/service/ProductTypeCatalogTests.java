@@ -0,0 +1,94 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.ProductTypeEntity;
+import com.example.fridgemate.repository.ProductTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductTypeCatalogTests {
+    private ProductTypeRepository productTypeRepository;
+    private ProductTypeCatalog productTypeCatalog;
+
+    @BeforeEach
+    void setUp() {
+        productTypeRepository = mock(ProductTypeRepository.class);
+        productTypeCatalog = new ProductTypeCatalog(productTypeRepository, mock(StringRedisTemplate.class));
+        givenTypes("Молоко", "Молочный коктейль", "Мука", "Мёд", "Масло", "Сыр", "молоко топлёное", "МОЛОКО СГУЩЁННОЕ");
+    }
+
+    private void givenTypes(String... names) {
+        List<ProductTypeEntity> types = new ArrayList<>();
+        for (String name : names) {
+            ProductTypeEntity type = new ProductTypeEntity();
+            type.setId((long) types.size() + 1);
+            type.setName(name);
+            type.setShelfDays(7);
+            type.setQuantityType("шт");
+            types.add(type);
+        }
+        when(productTypeRepository.findAll()).thenReturn(types);
+        productTypeCatalog.load(0);
+    }
+
+    private List<String> names(String prefix, int limit) {
+        return productTypeCatalog.findByPrefix(prefix, limit).stream().map(ProductTypeEntity::getName).toList();
+    }
+
+    @Test
+    void findByPrefixIgnoresCaseAndOrdersByName() {
+        assertEquals(List.of("Молоко", "МОЛОКО СГУЩЁННОЕ", "молоко топлёное", "Молочный коктейль"), names("мол", 10));
+        assertEquals(names("мол", 10), names("  МОЛ ", 10));
+    }
+
+    @Test
+    void findByPrefixStopsAtLimit() {
+        assertEquals(List.of("Молоко", "МОЛОКО СГУЩЁННОЕ"), names("молоко", 2));
+    }
+
+    @Test
+    void findByPrefixReturnsExactNameFirst() {
+        assertEquals(List.of("Мука"), names("МУКА", 10));
+    }
+
+    @Test
+    void findByPrefixStartsFromFirstOfEqualNames() {
+        givenTypes("Сыр", "сыр", "СЫР", "Сырок", "Масло", "Чай", "Яйца");
+
+        assertEquals(List.of("Сыр", "сыр", "СЫР", "Сырок"), names("сыр", 10));
+    }
+
+    @Test
+    void findByPrefixWithoutMatchIsEmpty() {
+        assertTrue(names("хлеб", 10).isEmpty());
+        assertTrue(names("яя", 10).isEmpty());
+    }
+
+    @Test
+    void findByPrefixWithEmptyPrefixReturnsFirstNames() {
+        assertEquals(List.of("Масло", "Молоко"), names("", 2));
+    }
+
+    @Test
+    void findByPrefixOnEmptyCatalogIsEmpty() {
+        givenTypes();
+
+        assertTrue(names("мол", 10).isEmpty());
+    }
+
+    @Test
+    void findByIdAndNameUseLoadedSnapshot() {
+        assertEquals(Optional.of("Мука"), productTypeCatalog.findById(3L).map(ProductTypeEntity::getName));
+        assertEquals(Optional.of(3L), productTypeCatalog.findByName("Мука").map(ProductTypeEntity::getId));
+        assertTrue(productTypeCatalog.findByName("мука").isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.fridgemate.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTests {
+    private static final int CALLERS = 16;
+
+    @Test
+    void concurrentMissesOfSameKeyRunLoaderOnce() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<Integer> first = executor.submit(() -> singleFlight.load("fridge", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return 42;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            List<Future<Integer>> waiters = new ArrayList<>();
+            for (int i = 1; i < CALLERS; i++) {
+                waiters.add(executor.submit(() -> singleFlight.load("fridge", () -> {
+                    loads.incrementAndGet();
+                    return -1;
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals(42, first.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> waiter : waiters) {
+                assertEquals(42, waiter.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertEquals("a", singleFlight.load("a", () -> "a"));
+        assertEquals("b", singleFlight.load("b", () -> "b"));
+    }
+
+    @Test
+    void keyIsLoadedAgainAfterLoadCompleted() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load("fridge", loads::incrementAndGet);
+        singleFlight.load("fridge", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void waitersGetExceptionOfLoader() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("db is down");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> singleFlight.load("fridge", () -> {
+                loading.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<RuntimeException> waiter = executor.submit(() ->
+                    assertThrows(RuntimeException.class, () -> singleFlight.load("fridge", () -> -1)));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertSame(failure, waiter.get(5, TimeUnit.SECONDS));
+            assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("fridge", () -> {
+            throw new IllegalStateException("db is down");
+        }));
+        assertEquals(1, singleFlight.load("fridge", () -> 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
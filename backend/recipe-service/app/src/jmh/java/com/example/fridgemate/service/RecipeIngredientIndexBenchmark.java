@@ -0,0 +1,59 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.RecipeMatchDto;
+import com.example.fridgemate.repository.RecipeSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeIngredientIndexBenchmark {
+    private static final int RECIPES_COUNT = 100_000;
+    private static final int INGREDIENTS_COUNT = 2_000;
+
+    @Param({"1", "3", "5"})
+    private int minMatch;
+
+    private RecipeIngredientIndex index;
+    private List<String> have;
+
+    private record Row(Long getId, String getName, int getServing, String getIngredientsText) implements RecipeSummary {
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Row> rows = new ArrayList<>(RECIPES_COUNT);
+        for (int id = 1; id <= RECIPES_COUNT; id++) {
+            String ingredients = IntStream.range(0, 5 + random.nextInt(11))
+                    .mapToObj(ignored -> "Ингредиент " + skewed(random) + " " + (1 + random.nextInt(500)) + " г")
+                    .collect(Collectors.joining(", "));
+            rows.add(new Row((long) id, "Рецепт " + id, 2, ingredients));
+        }
+        index = new RecipeIngredientIndex(null);
+        index.load(rows);
+        have = IntStream.of(0, 3, 10, 42, 150, 600, 1200)
+                .mapToObj(ingredient -> "ингредиент " + ingredient)
+                .toList();
+    }
+
+    private static int skewed(Random random) {
+        double value = random.nextDouble();
+        return (int) (value * value * INGREDIENTS_COUNT);
+    }
+
+    @Benchmark
+    public List<RecipeMatchDto> match() {
+        return index.match(have, minMatch, 20);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.fridgemate.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of full-text recipe search over synthetic catalog.
+ * Catalog is created in temporary table of local Postgres, so real recipes are not touched.
+ * Connection is taken from -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and -Dbenchmark.jdbc.password.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeSearchBenchmark {
+    private static final int RECIPES_COUNT = 200_000;
+    private static final String SEARCH_QUERY = "SELECT r.id, r.name, r.serving, r.ingredients "
+            + "FROM recipes_benchmark r, websearch_to_tsquery('simple', ?) q WHERE r.search_vector @@ q "
+            + "ORDER BY ts_rank(r.search_vector, q) DESC, r.id LIMIT 20 OFFSET ?";
+
+    @Param({"ингредиент7", "рецепт 42", "ингредиент3 ингредиент11"})
+    private String query;
+
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/fridgemate"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "123"));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TEMP TABLE recipes_benchmark (id BIGINT PRIMARY KEY, name TEXT, ingredients TEXT, "
+                    + "serving INT, instructions TEXT, search_vector tsvector GENERATED ALWAYS AS ("
+                    + "setweight(to_tsvector('simple', coalesce(name, '')), 'A') "
+                    + "|| setweight(to_tsvector('simple', coalesce(ingredients, '')), 'B') "
+                    + "|| setweight(to_tsvector('simple', coalesce(instructions, '')), 'C')) STORED)");
+            ddl.execute("INSERT INTO recipes_benchmark (id, name, ingredients, serving, instructions) "
+                    + "SELECT i, 'Рецепт ' || i, "
+                    + "'Ингредиент' || (i % 97) || ', Ингредиент' || (i % 13) || ', Ингредиент' || (i % 7), "
+                    + "2, repeat('Смешать и готовить ' || (i % 31) || ' минут. ', 20) "
+                    + "FROM generate_series(1, " + RECIPES_COUNT + ") AS i");
+            ddl.execute("CREATE INDEX ON recipes_benchmark USING gin (search_vector)");
+            ddl.execute("ANALYZE recipes_benchmark");
+        }
+        statement = connection.prepareStatement(SEARCH_QUERY);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> search() throws SQLException {
+        statement.setString(1, query);
+        statement.setInt(2, 0);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
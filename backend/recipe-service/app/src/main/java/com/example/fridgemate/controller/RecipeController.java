@@ -8,8 +8,10 @@ import org.springframework.http.*;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -36,6 +38,100 @@ public class RecipeController {
                 .thenApply(recipes -> recipes.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(recipes));
     }
 
+    /**
+     * METHOD GET: getRecipesPage.
+     * This method get one page of recipes after given recipe id.
+     *
+     * @param afterId Identity of the last recipe of previous page.
+     * @param limit Maximum count of recipes in page.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Получить страницу рецептов")
+    @GetMapping("/all/page")
+    public CompletableFuture<ResponseEntity<?>> getRecipesPage(@RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+                                                               @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return recipeService.getRecipesPage(afterId, limit)
+                .thenApply(page -> !page.getRecipes().isEmpty() ? ResponseEntity.ok(page) : ResponseEntity.noContent().build());
+    }
+
+    /**
+     * METHOD GET: streamAllRecipes.
+     * This method stream all recipes as NDJSON.
+     *
+     * @return OK (200).
+     */
+    @Operation(summary = "Выгрузить все рецепты потоком NDJSON")
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRecipes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(recipeService.streamAllRecipes());
+    }
+
+    /**
+     * METHOD GET: getRecipeSummaries.
+     * This method get all recipes without instructions.
+     *
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Получить краткие данные всех рецептов без инструкций")
+    @GetMapping("/summary")
+    public CompletableFuture<ResponseEntity<?>> getRecipeSummaries() {
+        return recipeService.getRecipeSummaries()
+                .thenApply(recipes -> recipes.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(recipes));
+    }
+
+    /**
+     * METHOD GET: getRecipeInstructions.
+     * This method get instructions of recipe by id.
+     *
+     * @param id Identity of recipe.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Получить инструкции рецепта по идентификатору")
+    @GetMapping("/instructions")
+    public CompletableFuture<ResponseEntity<?>> getRecipeInstructions(@RequestParam("id") Long id) {
+        return recipeService.findRecipeInstructions(id)
+                .thenApply(instructions -> instructions.<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * METHOD GET: matchRecipes.
+     * This method get recipes ranked by count of given ingredients in db.
+     *
+     * @param have Ingredients of user.
+     * @param minMatch Minimum count of matched ingredients.
+     * @param limit Maximum count of recipes.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Подобрать рецепты по ингредиентам на стороне базы данных")
+    @GetMapping("/match")
+    public CompletableFuture<ResponseEntity<?>> matchRecipes(@RequestParam("have") List<String> have,
+                                                             @RequestParam(value = "minMatch", defaultValue = "1") int minMatch,
+                                                             @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return recipeService.matchRecipes(have, minMatch, limit)
+                .thenApply(recipes -> recipes.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(recipes));
+    }
+
+    /**
+     * METHOD GET: searchRecipes.
+     * This method find recipes by words ordered by relevance.
+     *
+     * @param query Search query.
+     * @param page Number of page from zero.
+     * @param limit Maximum count of recipes in page.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Полнотекстовый поиск рецептов")
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<?>> searchRecipes(@RequestParam("q") String query,
+                                                              @RequestParam(value = "page", defaultValue = "0") int page,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return recipeService.searchRecipes(query, page, limit)
+                .thenApply(recipes -> recipes.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(recipes));
+    }
+
     /**
      * METHOD GET: getByIdRecipes.
      * This method send response which get recipe by id.
@@ -51,6 +147,24 @@ public class RecipeController {
                         .orElseGet(() -> ResponseEntity.noContent().build()));
     }
 
+    /**
+     * METHOD GET: getRecipesByIngredients.
+     * This method get recipes which contain given ingredients.
+     *
+     * @param have Ingredients of user.
+     * @param minMatch Minimum count of matched ingredients.
+     * @param limit Maximum count of recipes.
+     * @return OK (200) or NO_CONTENT (204).
+     */
+    @Operation(summary = "Получить рецепты по имеющимся ингредиентам")
+    @GetMapping("/by-ingredients")
+    public CompletableFuture<ResponseEntity<?>> getRecipesByIngredients(@RequestParam("have") List<String> have,
+                                                                        @RequestParam(value = "minMatch", defaultValue = "1") int minMatch,
+                                                                        @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return recipeService.findRecipesByIngredients(have, minMatch, limit)
+                .thenApply(recipes -> recipes.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(recipes));
+    }
+
     /**
      * METHOD ExceptionHandler: handleRecipeValidationException.
      * This method is handler of MethodArgumentNotValidException.
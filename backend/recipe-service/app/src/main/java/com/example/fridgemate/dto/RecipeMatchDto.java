@@ -0,0 +1,18 @@
+package com.example.fridgemate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class RecipeMatchDto {
+    private Long id;
+
+    private String name;
+
+    private int matched;
+
+    private int missing;
+}
@@ -0,0 +1,17 @@
+package com.example.fridgemate.dto;
+
+import com.example.fridgemate.entity.RecipeEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class RecipePageDto {
+    private List<RecipeEntity> recipes;
+
+    private Long nextAfterId;
+}
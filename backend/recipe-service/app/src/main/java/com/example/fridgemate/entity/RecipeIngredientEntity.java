@@ -0,0 +1,40 @@
+package com.example.fridgemate.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "recipe_ingredient",
+        uniqueConstraints = @UniqueConstraint(name = "uk_recipe_ingredient_recipe_key", columnNames = {"recipe_id", "ingredient_key"}),
+        indexes = @Index(name = "idx_recipe_ingredient_key_recipe", columnList = "ingredient_key, recipe_id"))
+public class RecipeIngredientEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_ingredient_id_seq")
+    @SequenceGenerator(name = "recipe_ingredient_id_seq", sequenceName = "recipe_ingredient_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipe_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_recipe_ingredient_recipe"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private RecipeEntity recipe;
+
+    @Column(name = "ingredient_key", nullable = false)
+    private String ingredientKey;
+
+    @Column(name = "quantity")
+    private BigDecimal quantity;
+
+    @Column(name = "unit")
+    private String unit;
+}
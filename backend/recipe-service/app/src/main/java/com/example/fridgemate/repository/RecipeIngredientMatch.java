@@ -0,0 +1,14 @@
+package com.example.fridgemate.repository;
+
+/**
+ * Recipe ranked by count of matched ingredient keys.
+ */
+public interface RecipeIngredientMatch {
+    Long getId();
+
+    String getName();
+
+    Long getMatched();
+
+    Long getMissing();
+}
@@ -0,0 +1,30 @@
+package com.example.fridgemate.repository;
+
+import com.example.fridgemate.entity.RecipeIngredientEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredientEntity, Long> {
+    @Query(value = "SELECT r.id AS id, r.name AS name, m.matched AS matched, m.total - m.matched AS missing "
+            + "FROM (SELECT ri.recipe_id, COUNT(DISTINCT ri.ingredient_key) FILTER (WHERE ri.ingredient_key IN (:keys)) AS matched, "
+            + "COUNT(*) AS total FROM recipe_ingredient ri "
+            + "WHERE ri.recipe_id IN (SELECT recipe_id FROM recipe_ingredient WHERE ingredient_key IN (:keys)) "
+            + "GROUP BY ri.recipe_id HAVING COUNT(DISTINCT ri.ingredient_key) FILTER (WHERE ri.ingredient_key IN (:keys)) >= :minMatch) m "
+            + "JOIN recipes r ON r.id = m.recipe_id "
+            + "ORDER BY m.matched DESC, missing, r.id LIMIT :limit", nativeQuery = true)
+    List<RecipeIngredientMatch> rankByIngredientKeys(@Param("keys") Collection<String> keys,
+                                                     @Param("minMatch") int minMatch,
+                                                     @Param("limit") int limit);
+
+    @Query("SELECT r.id AS id, r.name AS name, r.serving AS serving, r.ingredients AS ingredientsText FROM RecipeEntity r "
+            + "WHERE r.id > :afterId AND NOT EXISTS (SELECT 1 FROM RecipeIngredientEntity ri WHERE ri.recipeId = r.id) "
+            + "ORDER BY r.id")
+    List<RecipeSummary> findSummariesWithoutIngredients(@Param("afterId") Long afterId, Limit limit);
+}
@@ -1,9 +1,48 @@
 package com.example.fridgemate.repository;
 
 import com.example.fridgemate.entity.RecipeEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<RecipeEntity, Long> {
+    @Query("SELECT r.id AS id, r.name AS name, r.serving AS serving, r.ingredients AS ingredientsText FROM RecipeEntity r ORDER BY r.id")
+    List<RecipeSummary> findAllSummaries();
+
+    @Query("SELECT r.instructions FROM RecipeEntity r WHERE r.id = :id")
+    Optional<String> findInstructionsById(@Param("id") Long id);
+
+    @Query(value = "SELECT r.id AS id, r.name AS name, r.serving AS serving, r.ingredients AS \"ingredientsText\" "
+            + "FROM recipes r, websearch_to_tsquery('simple', :query) q WHERE r.search_vector @@ q "
+            + "ORDER BY ts_rank(r.search_vector, q) DESC, r.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<RecipeSummary> search(@Param("query") String query,
+                               @Param("limit") int limit,
+                               @Param("offset") int offset);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE recipes SET search_vector = recipe_search_vector(name, ingredients, instructions) "
+            + "WHERE id IN (SELECT id FROM recipes WHERE search_vector IS NULL ORDER BY id LIMIT :limit)", nativeQuery = true)
+    int fillMissingSearchVectors(@Param("limit") int limit);
+
+    List<RecipeEntity> findAllByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM RecipeEntity r ORDER BY r.id")
+    Stream<RecipeEntity> streamAll();
 }
@@ -0,0 +1,24 @@
+package com.example.fridgemate.repository;
+
+import com.example.fridgemate.util.IngredientParser;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Recipe without instructions, used by catalog and matching.
+ */
+public interface RecipeSummary {
+    Long getId();
+
+    String getName();
+
+    int getServing();
+
+    @JsonIgnore
+    String getIngredientsText();
+
+    default List<String> getIngredients() {
+        return IngredientParser.split(getIngredientsText());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.RecipeMatchDto;
+import com.example.fridgemate.repository.RecipeRepository;
+import com.example.fridgemate.repository.RecipeSummary;
+import com.example.fridgemate.util.IngredientParser;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+@Service
+public class RecipeIngredientIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeIngredientIndex.class);
+    private static final Comparator<RecipeMatchDto> RANKING = Comparator
+            .comparingInt(RecipeMatchDto::getMatched).reversed()
+            .thenComparingInt(RecipeMatchDto::getMissing)
+            .thenComparing(RecipeMatchDto::getId);
+    private final RecipeRepository recipeRepository;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    public RecipeIngredientIndex(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    /**
+     * Recipe data kept next to posting lists.
+     */
+    private record IndexedRecipe(String name, List<String> keys) {
+    }
+
+    /**
+     * Immutable posting lists of recipe ids keyed by ingredient.
+     */
+    private record Snapshot(Map<String, RoaringBitmap> postings, Map<Integer, IndexedRecipe> recipes) {
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+
+    /**
+     * METHOD: reload.
+     * This method build index from ingredients of all recipes in db.
+     */
+    @PostConstruct
+    public void reload() {
+        load(recipeRepository.findAllSummaries());
+    }
+
+    /**
+     * METHOD: load.
+     * This method build new index from recipes and replace current one.
+     *
+     * @param rows Recipes with ingredients.
+     */
+    public synchronized void load(Collection<? extends RecipeSummary> rows) {
+        Map<String, RoaringBitmap> postings = new HashMap<>();
+        Map<Integer, IndexedRecipe> recipes = new HashMap<>(rows.size() * 2);
+        for (RecipeSummary row : rows) {
+            if (row.getId() > Integer.MAX_VALUE) {
+                logger.error("Recipe {} is out of index range", row.getId());
+                continue;
+            }
+            int id = row.getId().intValue();
+            List<String> keys = IngredientParser.parse(row.getIngredientsText());
+            recipes.put(id, new IndexedRecipe(row.getName(), keys));
+            keys.forEach(key -> postings.computeIfAbsent(key, ignored -> new RoaringBitmap()).add(id));
+        }
+        postings.values().forEach(RoaringBitmap::runOptimize);
+        snapshot = new Snapshot(postings, recipes);
+        logger.info("Recipe ingredient index built: Recipes: {}, Ingredients: {}", recipes.size(), postings.size());
+    }
+
+    /**
+     * METHOD: match.
+     * This method find recipes which contain at least minMatch of given ingredients.
+     * Recipes with more matched and fewer missing ingredients go first.
+     *
+     * @param have Ingredients of user.
+     * @param minMatch Minimum count of matched ingredients.
+     * @param limit Maximum count of recipes.
+     * @return List of {@link RecipeMatchDto}.
+     */
+    public List<RecipeMatchDto> match(Collection<String> have, int minMatch, int limit) {
+        Snapshot current = snapshot;
+        List<RoaringBitmap> bitmaps = have.stream()
+                .map(IngredientParser::key)
+                .distinct()
+                .map(current.postings()::get)
+                .filter(Objects::nonNull)
+                .toList();
+        if (bitmaps.isEmpty() || bitmaps.size() < minMatch) {
+            return List.of();
+        }
+        RoaringBitmap candidates = atLeast(bitmaps, minMatch);
+        PriorityQueue<RecipeMatchDto> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        IntIterator iterator = candidates.getIntIterator();
+        while (iterator.hasNext()) {
+            int id = iterator.next();
+            int matched = 0;
+            for (RoaringBitmap bitmap : bitmaps) {
+                if (bitmap.contains(id)) {
+                    matched++;
+                }
+            }
+            IndexedRecipe recipe = current.recipes().get(id);
+            top.add(new RecipeMatchDto((long) id, recipe.name(), matched, recipe.keys().size() - matched));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<RecipeMatchDto> matches = new ArrayList<>(top);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    /**
+     * METHOD: atLeast.
+     * This method get ids contained in at least threshold of bitmaps.
+     * Level i keeps ids seen in more than i bitmaps, so only unions and intersections are used.
+     *
+     * @param bitmaps Posting lists.
+     * @param threshold Minimum count of posting lists.
+     * @return Bitmap of ids.
+     */
+    static RoaringBitmap atLeast(List<RoaringBitmap> bitmaps, int threshold) {
+        if (threshold <= 1) {
+            return FastAggregation.or(bitmaps.iterator());
+        }
+        if (threshold == bitmaps.size()) {
+            return FastAggregation.and(bitmaps.iterator());
+        }
+        RoaringBitmap[] levels = new RoaringBitmap[threshold];
+        for (int level = 0; level < threshold; level++) {
+            levels[level] = new RoaringBitmap();
+        }
+        for (RoaringBitmap bitmap : bitmaps) {
+            for (int level = threshold - 1; level > 0; level--) {
+                levels[level].or(RoaringBitmap.and(levels[level - 1], bitmap));
+            }
+            levels[0].or(bitmap);
+        }
+        return levels[threshold - 1];
+    }
+}
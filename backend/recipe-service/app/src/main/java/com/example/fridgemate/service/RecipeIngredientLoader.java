@@ -0,0 +1,88 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.entity.RecipeIngredientEntity;
+import com.example.fridgemate.repository.RecipeIngredientRepository;
+import com.example.fridgemate.repository.RecipeSummary;
+import com.example.fridgemate.util.IngredientParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class RecipeIngredientLoader {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeIngredientLoader.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final TransactionTemplate transaction;
+
+    @Autowired
+    public RecipeIngredientLoader(RecipeIngredientRepository recipeIngredientRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.recipeIngredientRepository = recipeIngredientRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * METHOD: loadMissing.
+     * This method split ingredients of recipes which have no rows in recipe_ingredient yet.
+     * Recipes are read in keyset batches, each batch is saved in its own transaction.
+     * Batch already inserted by another node is skipped, any other error stops load without stopping service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMissing() {
+        long afterId = 0;
+        int count = 0;
+        List<RecipeSummary> recipes;
+        try {
+            do {
+                recipes = recipeIngredientRepository.findSummariesWithoutIngredients(afterId, Limit.of(LOAD_BATCH_SIZE));
+                List<RecipeIngredientEntity> ingredients = new ArrayList<>();
+                recipes.forEach(recipe -> ingredients.addAll(toEntities(recipe.getId(), recipe.getIngredientsText())));
+                try {
+                    transaction.executeWithoutResult(status -> recipeIngredientRepository.saveAll(ingredients));
+                    count += recipes.size();
+                } catch (DataIntegrityViolationException exception) {
+                    logger.warn("Recipe ingredients batch is already loaded by another node, skipped");
+                }
+                if (!recipes.isEmpty()) {
+                    afterId = recipes.get(recipes.size() - 1).getId();
+                }
+            } while (recipes.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException exception) {
+            logger.error("Recipe ingredients load error: {}", exception.getMessage());
+            return;
+        }
+        logger.info("Recipe ingredients loaded: Recipes: {}", count);
+    }
+
+    /**
+     * METHOD: toEntities.
+     * This method build ingredient rows of recipe.
+     *
+     * @param recipeId Identity of recipe.
+     * @param ingredients Ingredients text.
+     * @return List of {@link RecipeIngredientEntity}.
+     */
+    private List<RecipeIngredientEntity> toEntities(Long recipeId, String ingredients) {
+        return IngredientParser.parseIngredients(ingredients).stream()
+                .map(parsed -> {
+                    RecipeIngredientEntity ingredient = new RecipeIngredientEntity();
+                    ingredient.setRecipeId(recipeId);
+                    ingredient.setIngredientKey(parsed.key());
+                    ingredient.setQuantity(parsed.quantity());
+                    ingredient.setUnit(parsed.unit());
+                    return ingredient;
+                })
+                .toList();
+    }
+}
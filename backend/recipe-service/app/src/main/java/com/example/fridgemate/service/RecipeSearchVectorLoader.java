@@ -0,0 +1,44 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RecipeSearchVectorLoader {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSearchVectorLoader.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private final RecipeRepository recipeRepository;
+
+    @Autowired
+    public RecipeSearchVectorLoader(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    /**
+     * METHOD: loadMissing.
+     * This method fill search vectors of recipes written before search_vector trigger existed.
+     * Recipes are updated in batches, each batch in its own transaction, so table is never locked as a whole.
+     * After backfill every batch finds nothing, so load on next start costs one query.
+     * Any error stops load without stopping service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMissing() {
+        int count = 0;
+        int updated;
+        try {
+            do {
+                updated = recipeRepository.fillMissingSearchVectors(LOAD_BATCH_SIZE);
+                count += updated;
+            } while (updated == LOAD_BATCH_SIZE);
+        } catch (RuntimeException exception) {
+            logger.error("Recipe search vectors load error: {}", exception.getMessage());
+            return;
+        }
+        logger.info("Recipe search vectors loaded: Recipes: {}", count);
+    }
+}
@@ -1,34 +1,72 @@
 package com.example.fridgemate.service;
 
+import com.example.fridgemate.dto.RecipeMatchDto;
+import com.example.fridgemate.dto.RecipePageDto;
 import com.example.fridgemate.entity.RecipeEntity;
+import com.example.fridgemate.exception.RecipeException;
+import com.example.fridgemate.repository.RecipeIngredientRepository;
 import com.example.fridgemate.repository.RecipeRepository;
+import com.example.fridgemate.repository.RecipeSummary;
+import com.example.fridgemate.util.IngredientParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 public class RecipeService {
     private static final Logger logger = LoggerFactory.getLogger(RecipeService.class);
+    private static final int MAX_HAVE_SIZE = 100;
+    private static final int MAX_MATCH_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 500;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int MAX_SEARCH_OFFSET = 1000;
     private final RecipeRepository recipeRepository;
+    private final RecipeIngredientIndex recipeIngredientIndex;
+    private final RecipeIngredientRepository recipeIngredientRepository;
     private final RedisTemplate<String, Object> redisTemplate;
     private final Executor executor;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
     public RecipeService(RecipeRepository recipeRepository,
+                         RecipeIngredientIndex recipeIngredientIndex,
+                         RecipeIngredientRepository recipeIngredientRepository,
                          RedisTemplate<String, Object> redisTemplate,
-                         @Qualifier("recipesExecutor") Executor executor) {
+                         @Qualifier("recipesExecutor") Executor executor,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
         this.recipeRepository = recipeRepository;
+        this.recipeIngredientIndex = recipeIngredientIndex;
+        this.recipeIngredientRepository = recipeIngredientRepository;
         this.redisTemplate = redisTemplate;
         this.executor = executor;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
@@ -45,6 +83,97 @@ public class RecipeService {
         }, executor);
     }
 
+    /**
+     * METHOD: getRecipesPage.
+     * This method get one page of recipes from db ordered by id.
+     *
+     * @param afterId Identity of the last recipe of previous page.
+     * @param limit Maximum count of recipes in page.
+     * @return {@link RecipePageDto} or RecipeException.
+     */
+    public CompletableFuture<RecipePageDto> getRecipesPage(Long afterId, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+                logger.error("Incorrect page limit: {}", limit);
+                throw new RecipeException("Page limit should be between 1 and " + MAX_PAGE_LIMIT + ".");
+            }
+            List<RecipeEntity> recipes = recipeRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+            Long nextAfterId = recipes.size() == limit ? recipes.get(recipes.size() - 1).getId() : null;
+            logger.info("Retrieved recipes page: Count: {}", recipes.size());
+            return new RecipePageDto(recipes, nextAfterId);
+        }, executor);
+    }
+
+    /**
+     * METHOD: streamAllRecipes.
+     * This method stream all recipes from db as NDJSON.
+     *
+     * @return {@link StreamingResponseBody}.
+     */
+    public StreamingResponseBody streamAllRecipes() {
+        return output -> readOnlyTransaction.executeWithoutResult(status -> writeRecipes(output));
+    }
+
+    /**
+     * METHOD: writeRecipes.
+     * This method write recipes to output one JSON line per recipe.
+     * Every written recipe is detached, so persistence context does not grow with catalog.
+     *
+     * @param output Response output.
+     */
+    private void writeRecipes(OutputStream output) {
+        int count = 0;
+        try (Stream<RecipeEntity> recipes = recipeRepository.streamAll()) {
+            Iterator<RecipeEntity> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                RecipeEntity recipe = iterator.next();
+                output.write(objectMapper.writeValueAsBytes(recipe));
+                output.write('\n');
+                entityManager.detach(recipe);
+                count++;
+            }
+            output.flush();
+        } catch (IOException exception) {
+            logger.error("Streaming recipes error");
+            throw new UncheckedIOException(exception);
+        }
+        logger.info("Streamed all recipes: Count: {}", count);
+    }
+
+    /**
+     * METHOD: getRecipeSummaries.
+     * This method get all recipes without instructions from db.
+     *
+     * @return List of {@link RecipeSummary}.
+     */
+    public CompletableFuture<List<RecipeSummary>> getRecipeSummaries() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<RecipeSummary> recipes = recipeRepository.findAllSummaries();
+            logger.info("Retrieved recipe summaries: Count: {}", recipes.size());
+            return recipes;
+        }, executor);
+    }
+
+    /**
+     * METHOD: findRecipeInstructions.
+     * This method get only instructions of recipe, from cached recipe if it is present.
+     *
+     * @param id Identity of recipe.
+     * @return An optional instructions.
+     */
+    public CompletableFuture<Optional<String>> findRecipeInstructions(Long id) {
+        return CompletableFuture.supplyAsync(() -> {
+            Object cachedRecipeObj = redisTemplate.opsForValue().get("recipe: " + id);
+            if (cachedRecipeObj instanceof RecipeEntity cachedRecipe) {
+                logger.info("Recipe {} instructions found in cache", id);
+                return Optional.of(cachedRecipe.getInstructions());
+            }
+            Optional<String> instructions = recipeRepository.findInstructionsById(id);
+            instructions.ifPresent(text -> logger.info("Recipe {} instructions found", id));
+            return instructions;
+        }, executor);
+    }
+
     /**
      * METHOD: findRecipeById.
      * This method find and get recipe by id from db.
@@ -71,4 +200,91 @@ public class RecipeService {
             return Optional.of(cachedRecipe);
         }, executor);
     }
+
+    /**
+     * METHOD: findRecipesByIngredients.
+     * This method find recipes which can be cooked from given ingredients using ingredient index.
+     *
+     * @param have Ingredients of user.
+     * @param minMatch Minimum count of matched ingredients.
+     * @param limit Maximum count of recipes.
+     * @return List of {@link RecipeMatchDto} or RecipeException.
+     */
+    public CompletableFuture<List<RecipeMatchDto>> findRecipesByIngredients(List<String> have, int minMatch, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            checkMatchParameters(have, minMatch, limit);
+            List<RecipeMatchDto> recipes = recipeIngredientIndex.match(have, minMatch, limit);
+            logger.info("Found recipes by ingredients: Count: {}", recipes.size());
+            return recipes;
+        }, executor);
+    }
+
+    /**
+     * METHOD: matchRecipes.
+     * This method rank recipes by count of given ingredients inside Postgres using recipe_ingredient table.
+     *
+     * @param have Ingredients of user.
+     * @param minMatch Minimum count of matched ingredients.
+     * @param limit Maximum count of recipes.
+     * @return List of {@link RecipeMatchDto} or RecipeException.
+     */
+    public CompletableFuture<List<RecipeMatchDto>> matchRecipes(List<String> have, int minMatch, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            checkMatchParameters(have, minMatch, limit);
+            List<String> keys = have.stream()
+                    .map(IngredientParser::key)
+                    .distinct()
+                    .toList();
+            List<RecipeMatchDto> recipes = recipeIngredientRepository.rankByIngredientKeys(keys, minMatch, limit).stream()
+                    .map(match -> new RecipeMatchDto(match.getId(), match.getName(),
+                            match.getMatched().intValue(), match.getMissing().intValue()))
+                    .toList();
+            logger.info("Matched recipes by ingredients: Count: {}", recipes.size());
+            return recipes;
+        }, executor);
+    }
+
+    /**
+     * METHOD: checkMatchParameters.
+     * This method check parameters of matching by ingredients.
+     *
+     * @param have Ingredients of user.
+     * @param minMatch Minimum count of matched ingredients.
+     * @param limit Maximum count of recipes.
+     */
+    private void checkMatchParameters(List<String> have, int minMatch, int limit) {
+        if (have.isEmpty() || have.size() > MAX_HAVE_SIZE) {
+            logger.error("Incorrect count of ingredients: {}", have.size());
+            throw new RecipeException("Count of ingredients should be between 1 and " + MAX_HAVE_SIZE + ".");
+        }
+        if (minMatch <= 0 || minMatch > have.size() || limit <= 0 || limit > MAX_MATCH_LIMIT) {
+            logger.error("Incorrect match parameters: minMatch: {}, limit: {}", minMatch, limit);
+            throw new RecipeException("Minimum match should be between 1 and count of ingredients, limit between 1 and " + MAX_MATCH_LIMIT + ".");
+        }
+    }
+
+    /**
+     * METHOD: searchRecipes.
+     * This method find recipes by words in name, ingredients and instructions using full-text index.
+     *
+     * @param query Search query.
+     * @param page Number of page from zero.
+     * @param limit Maximum count of recipes in page.
+     * @return List of {@link RecipeSummary} ordered by rank or RecipeException.
+     */
+    public CompletableFuture<List<RecipeSummary>> searchRecipes(String query, int page, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (query.isBlank() || limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+                logger.error("Incorrect search query");
+                throw new RecipeException("Search query should be not empty and limit between 1 and " + MAX_SEARCH_LIMIT + ".");
+            }
+            if (page < 0 || (long) page * limit > MAX_SEARCH_OFFSET) {
+                logger.error("Incorrect search page: {}", page);
+                throw new RecipeException("Search page is out of range.");
+            }
+            List<RecipeSummary> recipes = recipeRepository.search(query.trim(), limit, page * limit);
+            logger.info("Found recipes by query: Count: {}", recipes.size());
+            return recipes;
+        }, executor);
+    }
 }
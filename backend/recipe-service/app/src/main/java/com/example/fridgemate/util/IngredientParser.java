@@ -0,0 +1,118 @@
+package com.example.fridgemate.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class IngredientParser {
+    private static final Pattern SEPARATOR = Pattern.compile("[,;\\n]");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern AMOUNT = Pattern.compile("^(.+?)\\s+(\\d+(?:[.,]\\d+)?)\\s*(\\S+)$");
+    private static final Set<String> UNITS = Set.of("г", "гр", "кг", "мг", "мл", "л", "шт", "ст.л.", "ч.л.",
+            "стакан", "щепотка", "зубчик", "g", "kg", "ml", "l", "pcs", "tbsp", "tsp", "cup");
+
+    private IngredientParser() {
+    }
+
+    /**
+     * METHOD: normalize.
+     * This method bring ingredient name to key used by index and matching.
+     *
+     * @param name Ingredient name.
+     * @return Lower-case key without extra spaces.
+     */
+    public static String normalize(String name) {
+        return SPACES.matcher(name.trim().toLowerCase(Locale.ROOT).replace('ё', 'е')).replaceAll(" ");
+    }
+
+    /**
+     * METHOD: key.
+     * This method get key of ingredient used by both in-memory index and recipe_ingredient table.
+     *
+     * @param ingredient One ingredient, with or without amount.
+     * @return Ingredient key.
+     */
+    public static String key(String ingredient) {
+        return parseIngredient(ingredient).key();
+    }
+
+    /**
+     * Ingredient key with optional amount written after the name.
+     */
+    public record ParsedIngredient(String key, BigDecimal quantity, String unit) {
+    }
+
+    /**
+     * METHOD: parseIngredient.
+     * This method separate key of ingredient from amount like "Молоко 200 мл".
+     * Trailing number is taken as amount only when known unit follows it,
+     * so names like "Ингредиент 42" keep the number in the key.
+     *
+     * @param ingredient One ingredient.
+     * @return {@link ParsedIngredient}.
+     */
+    public static ParsedIngredient parseIngredient(String ingredient) {
+        String normalized = normalize(ingredient);
+        Matcher matcher = AMOUNT.matcher(normalized);
+        if (matcher.matches() && UNITS.contains(matcher.group(3))) {
+            return new ParsedIngredient(matcher.group(1), new BigDecimal(matcher.group(2).replace(',', '.')), matcher.group(3));
+        }
+        return new ParsedIngredient(normalized, null, null);
+    }
+
+    /**
+     * METHOD: parseIngredients.
+     * This method split ingredients text of recipe into ingredients with distinct keys.
+     *
+     * @param ingredients Ingredients separated by comma.
+     * @return List of {@link ParsedIngredient} in original order.
+     */
+    public static List<ParsedIngredient> parseIngredients(String ingredients) {
+        Set<String> keys = new LinkedHashSet<>();
+        List<ParsedIngredient> parsed = new ArrayList<>();
+        for (String name : split(ingredients)) {
+            ParsedIngredient ingredient = parseIngredient(name);
+            if (!ingredient.key().isEmpty() && keys.add(ingredient.key())) {
+                parsed.add(ingredient);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * METHOD: split.
+     * This method split ingredients text of recipe into trimmed names as they are written.
+     *
+     * @param ingredients Ingredients separated by comma.
+     * @return List of ingredient names.
+     */
+    public static List<String> split(String ingredients) {
+        if (ingredients == null || ingredients.isBlank()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (String ingredient : SEPARATOR.split(ingredients)) {
+            String name = ingredient.trim();
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * METHOD: parse.
+     * This method split ingredients text of recipe into distinct keys.
+     *
+     * @param ingredients Ingredients separated by comma.
+     * @return List of ingredient keys in original order.
+     */
+    public static List<String> parse(String ingredients) {
+        return parseIngredients(ingredients).stream().map(ParsedIngredient::key).toList();
+    }
+}
@@ -0,0 +1,23 @@
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = ''recipes'' AND column_name = ''search_vector'') THEN
+        ALTER TABLE recipes ADD COLUMN search_vector tsvector;
+    ELSIF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = ''recipes'' AND column_name = ''search_vector'' AND is_generated = ''ALWAYS'') THEN
+        ALTER TABLE recipes ALTER COLUMN search_vector DROP EXPRESSION;
+    END IF;
+END';
+CREATE OR REPLACE FUNCTION recipe_search_vector(name TEXT, ingredients TEXT, instructions TEXT) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE AS 'SELECT setweight(to_tsvector(''simple'', coalesce($1, '''')), ''A'')
+        || setweight(to_tsvector(''simple'', coalesce($2, '''')), ''B'')
+        || setweight(to_tsvector(''simple'', coalesce($3, '''')), ''C'')';
+CREATE OR REPLACE FUNCTION recipes_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS 'BEGIN
+    NEW.search_vector := recipe_search_vector(NEW.name, NEW.ingredients, NEW.instructions);
+    RETURN NEW;
+END';
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''recipes_search_vector_update'') THEN
+        CREATE TRIGGER recipes_search_vector_update BEFORE INSERT OR UPDATE OF name, ingredients, instructions ON recipes
+            FOR EACH ROW EXECUTE FUNCTION recipes_search_vector_trigger();
+    END IF;
+END';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipes_search_vector ON recipes USING gin (search_vector);
@@ -0,0 +1,90 @@
+package com.example.fridgemate.service;
+
+import com.example.fridgemate.dto.RecipeMatchDto;
+import com.example.fridgemate.repository.RecipeSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeIngredientIndexTests {
+    private RecipeIngredientIndex index;
+
+    private record Row(Long getId, String getName, int getServing, String getIngredientsText) implements RecipeSummary {
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeIngredientIndex(null);
+        index.load(List.of(
+                new Row(1L, "Омлет", 1, "Яйца 2 шт, Молоко 100 мл, Соль"),
+                new Row(2L, "Блины", 4, "Яйца 2 шт, Молоко 500 мл, Мука 200 г, Сахар 1 ст.л."),
+                new Row(3L, "Салат", 2, "Огурец 2 шт, Помидор 2 шт, Соль"),
+                new Row(4L, "Вареное яйцо", 1, "Яйца 1 шт")));
+    }
+
+    private static List<Long> ids(List<RecipeMatchDto> matches) {
+        return matches.stream().map(RecipeMatchDto::getId).toList();
+    }
+
+    @Test
+    void matchWithThresholdOneReturnsEveryRecipeWithAnyIngredient() {
+        List<RecipeMatchDto> matches = index.match(List.of("яйца", "соль"), 1, 10);
+
+        assertEquals(List.of(1L, 4L, 3L, 2L), ids(matches));
+    }
+
+    @Test
+    void matchSkipsRecipesBelowMinMatch() {
+        List<RecipeMatchDto> matches = index.match(List.of("Яйца", "Молоко", "Соль"), 2, 10);
+
+        assertEquals(List.of(1L, 2L), ids(matches));
+        assertEquals(3, matches.get(0).getMatched());
+        assertEquals(0, matches.get(0).getMissing());
+        assertEquals(2, matches.get(1).getMatched());
+        assertEquals(2, matches.get(1).getMissing());
+    }
+
+    @Test
+    void matchWithThresholdOfAllIngredientsReturnsOnlyFullMatches() {
+        assertEquals(List.of(1L), ids(index.match(List.of("яйца", "молоко", "соль"), 3, 10)));
+    }
+
+    @Test
+    void matchIsEmptyWhenFewerKnownIngredientsThanMinMatch() {
+        assertTrue(index.match(List.of("яйца", "трюфель"), 2, 10).isEmpty());
+    }
+
+    @Test
+    void matchKeysUserIngredientsLikeRecipeIngredients() {
+        assertEquals(List.of(4L, 1L, 2L), ids(index.match(List.of("Яйца 10 шт"), 1, 10)));
+    }
+
+    @Test
+    void matchCountsDuplicateIngredientOnce() {
+        List<RecipeMatchDto> matches = index.match(List.of("соль", "Соль", "соль 1 г"), 2, 10);
+
+        assertTrue(matches.isEmpty());
+    }
+
+    @Test
+    void matchKeepsOnlyBestRecipesWithinLimit() {
+        assertEquals(List.of(1L, 4L), ids(index.match(List.of("яйца", "соль"), 1, 2)));
+    }
+
+    @Test
+    void atLeastReturnsIdsContainedInThresholdBitmaps() {
+        List<RoaringBitmap> bitmaps = List.of(
+                RoaringBitmap.bitmapOf(1, 2, 3),
+                RoaringBitmap.bitmapOf(2, 3, 4),
+                RoaringBitmap.bitmapOf(3, 4, 5));
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4, 5), RecipeIngredientIndex.atLeast(bitmaps, 1));
+        assertEquals(RoaringBitmap.bitmapOf(2, 3, 4), RecipeIngredientIndex.atLeast(bitmaps, 2));
+        assertEquals(RoaringBitmap.bitmapOf(3), RecipeIngredientIndex.atLeast(bitmaps, 3));
+    }
+}
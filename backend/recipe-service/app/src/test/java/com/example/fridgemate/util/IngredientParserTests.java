@@ -0,0 +1,70 @@
+package com.example.fridgemate.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IngredientParserTests {
+
+    @Test
+    void normalizeLowersCaseReplacesYoAndCollapsesSpaces() {
+        assertEquals("зеленый лук", IngredientParser.normalize("  Зелёный   Лук "));
+    }
+
+    @Test
+    void parseIngredientSeparatesAmountWithKnownUnit() {
+        IngredientParser.ParsedIngredient ingredient = IngredientParser.parseIngredient("Молоко 200 мл");
+
+        assertEquals("молоко", ingredient.key());
+        assertEquals(new BigDecimal("200"), ingredient.quantity());
+        assertEquals("мл", ingredient.unit());
+    }
+
+    @Test
+    void parseIngredientAcceptsDecimalCommaAndUnitWithoutSpace() {
+        IngredientParser.ParsedIngredient ingredient = IngredientParser.parseIngredient("Мука 0,5кг");
+
+        assertEquals("мука", ingredient.key());
+        assertEquals(new BigDecimal("0.5"), ingredient.quantity());
+        assertEquals("кг", ingredient.unit());
+    }
+
+    @Test
+    void parseIngredientKeepsNumberWithoutUnitInKey() {
+        IngredientParser.ParsedIngredient ingredient = IngredientParser.parseIngredient("Ингредиент 42");
+
+        assertEquals("ингредиент 42", ingredient.key());
+        assertNull(ingredient.quantity());
+        assertNull(ingredient.unit());
+    }
+
+    @Test
+    void parseIngredientKeepsNumberWithUnknownUnitInKey() {
+        IngredientParser.ParsedIngredient ingredient = IngredientParser.parseIngredient("Соус 7 звезд");
+
+        assertEquals("соус 7 звезд", ingredient.key());
+        assertNull(ingredient.quantity());
+    }
+
+    @Test
+    void keyIsSameForNameWithAndWithoutAmount() {
+        assertEquals(IngredientParser.key("Сахар"), IngredientParser.key("сахар 2 ст.л."));
+    }
+
+    @Test
+    void splitTrimsNamesAndSkipsEmptyOnes() {
+        assertEquals(List.of("Яйца 2 шт", "Соль", "Перец"), IngredientParser.split(" Яйца 2 шт,, Соль;\nПерец "));
+        assertEquals(List.of(), IngredientParser.split(null));
+        assertEquals(List.of(), IngredientParser.split("  "));
+    }
+
+    @Test
+    void parseReturnsDistinctKeysInOriginalOrder() {
+        assertEquals(List.of("яйца", "соль", "молоко"),
+                IngredientParser.parse("Яйца 2 шт, Соль, яйца 3 шт, Молоко 1 стакан, соль"));
+    }
+}
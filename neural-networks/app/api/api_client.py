@@ -10,7 +10,7 @@ async def fetch_products(token):
 
 async def fetch_recipes():
     async with httpx.AsyncClient() as api:
-        response = await api.get(f"{BASE_URL}/recipes/all")
+        response = await api.get(f"{BASE_URL}/recipes/summary")
         response.raise_for_status()
         return response.json()
 